@@ -0,0 +1,45 @@
+package org.payetonkawa.auth.auth_service.benchmark;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+
+/**
+ * Paires de clés générées à la volée pour les benchmarks (aucun fichier PEM requis).
+ */
+public final class BenchmarkKeys {
+
+    private BenchmarkKeys() {
+    }
+
+    public static KeyPair generate(String algorithm) throws Exception {
+        if ("ES256".equals(algorithm)) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        }
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    public static Resource privatePem(KeyPair pair) {
+        return pem("PRIVATE KEY", pair.getPrivate().getEncoded());
+    }
+
+    public static Resource publicPem(KeyPair pair) {
+        return pem("PUBLIC KEY", pair.getPublic().getEncoded());
+    }
+
+    private static Resource pem(String type, byte[] der) {
+        String content = "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder().encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+        return new ByteArrayResource(content.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,88 @@
+package org.payetonkawa.auth.auth_service.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compare un résultat JMH (JSON) à une référence enregistrée et échoue si un benchmark régresse
+ * au-delà de la tolérance. Usage : {@code BenchmarkRegressionCheck <résultat.json> <référence.json> [tolérance]}.
+ * Sans fichier de référence, la comparaison est ignorée.
+ */
+public final class BenchmarkRegressionCheck {
+
+    private record Score(String mode, double value) {
+    }
+
+    private BenchmarkRegressionCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkRegressionCheck <result.json> <baseline.json> [tolerance]");
+            System.exit(2);
+        }
+        Path result = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+
+        if (!Files.exists(baseline)) {
+            System.out.println("No JMH baseline at " + baseline + ", skipping regression check.");
+            System.out.println("Record one with: mkdir -p " + baseline.getParent() + " && cp " + result + " " + baseline);
+            return;
+        }
+
+        Map<String, Score> current = read(result);
+        Map<String, Score> reference = read(baseline);
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = reference.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW        %s%n", entry.getKey());
+                continue;
+            }
+            Score after = entry.getValue();
+            // Débit : plus haut = mieux ; temps moyen / échantillonné : plus bas = mieux
+            double change = "thrpt".equals(after.mode())
+                    ? (before.value() - after.value()) / before.value()
+                    : (after.value() - before.value()) / before.value();
+            boolean regressed = change > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-10s %s: %.3f -> %.3f (%+.1f%%)%n",
+                    regressed ? "REGRESSION" : "OK", entry.getKey(), before.value(), after.value(),
+                    (after.value() - before.value()) / before.value() * 100);
+        }
+
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, tolerance * 100);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(run.get("benchmark").asText());
+            JsonNode params = run.get("params");
+            if (params != null) {
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> param = fields.next();
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+                }
+            }
+            scores.put(key.toString(), new Score(run.get("mode").asText(),
+                    run.get("primaryMetric").get("score").asDouble()));
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,78 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Level;
+import org.payetonkawa.auth.auth_service.benchmark.BenchmarkKeys;
+import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.model.User;
+import org.payetonkawa.auth.auth_service.repository.RoleRepository;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.KeyPair;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+
+/**
+ * Passage complet dans {@link JwtAuthFilter} avec une requête simulée portant le cookie access_token.
+ * {@code cacheSize = 0} mesure le chemin sans cache (vérification de signature à chaque requête).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtAuthFilterBenchmark {
+
+    @Param({"0", "10000"})
+    public long cacheSize;
+
+    private JwtAuthFilter filter;
+    private Cookie accessCookie;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPair pair = BenchmarkKeys.generate("RS256");
+        SigningKeyRing keyRing = new SigningKeyRing(
+                BenchmarkKeys.privatePem(pair), BenchmarkKeys.publicPem(pair), "RS256", 86400000, Duration.ofMinutes(5));
+        keyRing.loadKeys();
+
+        RoleCodebook roleCodebook = new RoleCodebook(Mockito.mock(RoleRepository.class));
+        JwtService jwtService = new JwtService(keyRing, roleCodebook, new SimpleMeterRegistry());
+        jwtService.jwtExpirationMs = 900000;
+
+        User user = new User();
+        user.setEmail("bench@example.com");
+        user.setRoles(Set.of(new Role("USER")));
+
+        accessCookie = new Cookie("access_token", jwtService.generateAccessToken(user));
+        filter = new JwtAuthFilter(jwtService, new VerifiedTokenCache(cacheSize, new SimpleMeterRegistry()),
+                new TokenDenylist(null, 100_000, 0.01, new SimpleMeterRegistry()), roleCodebook);
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public MockHttpServletRequest filterRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/users");
+        request.setCookies(accessCookie);
+        filter.doFilterInternal(request, new MockHttpServletResponse(), chain);
+        return request;
+    }
+}
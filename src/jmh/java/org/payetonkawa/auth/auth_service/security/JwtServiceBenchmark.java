@@ -0,0 +1,85 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.payetonkawa.auth.auth_service.benchmark.BenchmarkKeys;
+import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.model.User;
+import org.payetonkawa.auth.auth_service.repository.RoleRepository;
+
+import java.security.KeyPair;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+
+/**
+ * Signature et vérification des jetons d'accès / de rafraîchissement.
+ * {@code compactRoles} compare le claim {@code roles} (liste de noms) au masque {@code rm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtServiceBenchmark {
+
+    @Param({"RS256", "ES256"})
+    public String algorithm;
+
+    @Param({"false", "true"})
+    public boolean compactRoles;
+
+    private JwtService jwtService;
+    private User user;
+    private String accessToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPair pair = BenchmarkKeys.generate(algorithm);
+        SigningKeyRing keyRing = new SigningKeyRing(
+                BenchmarkKeys.privatePem(pair), BenchmarkKeys.publicPem(pair), algorithm, 86400000, Duration.ofMinutes(5));
+        keyRing.loadKeys();
+
+        Role userRole = new Role("USER");
+        userRole.setId(1L);
+        Role adminRole = new Role("ADMIN");
+        adminRole.setId(2L);
+        RoleRepository roleRepository = Mockito.mock(RoleRepository.class);
+        Mockito.when(roleRepository.findAll()).thenReturn(List.of(userRole, adminRole));
+        RoleCodebook roleCodebook = new RoleCodebook(roleRepository);
+        roleCodebook.refresh();
+
+        jwtService = new JwtService(keyRing, roleCodebook, new SimpleMeterRegistry());
+        jwtService.jwtExpirationMs = 900000;
+        jwtService.refreshExpirationMs = 86400000;
+        jwtService.compactRoles = compactRoles;
+
+        user = new User();
+        user.setEmail("bench@example.com");
+        user.setRoles(Set.of(userRole, adminRole));
+
+        accessToken = jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateRefreshToken(user);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtService.verify(accessToken);
+    }
+}
@@ -0,0 +1,53 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.payetonkawa.auth.auth_service.dto.UserResponse;
+import org.payetonkawa.auth.auth_service.model.Status;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.UserRoleRow;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.UserRow;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assemblage projections → DTO d'une page du listing admin ({@link UserService#toResponses}), sans base de données.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserListingBenchmark {
+
+    @Param({"50", "500"})
+    public int pageSize;
+
+    private List<UserRow> rows;
+    private List<UserRoleRow> roles;
+
+    @Setup
+    public void setUp() {
+        rows = new ArrayList<>(pageSize);
+        roles = new ArrayList<>();
+        for (long i = 0; i < pageSize; i++) {
+            rows.add(new UserRow(i, "user" + i + "@example.com", "First" + i, "Last" + i, Status.ACTIVE,
+                    LocalDateTime.now(), LocalDateTime.now()));
+            roles.add(new UserRoleRow(i, 1L, "USER"));
+            if (i % 10 == 0) {
+                roles.add(new UserRoleRow(i, 2L, "ADMIN"));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<UserResponse> toResponses() {
+        return UserService.toResponses(rows, roles);
+    }
+}
@@ -0,0 +1,121 @@
+package org.payetonkawa.auth.auth_service.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Client HTTP minimal pour les endpoints d'authentification (cookies gérés à la main).
+ */
+final class AuthClient {
+
+    /** Cookies d'un utilisateur connecté ; mis à jour à chaque nouvelle connexion ou rafraîchissement. */
+    static final class Session {
+
+        private final String email;
+        private volatile String accessCookie;
+        private volatile String refreshCookie;
+
+        Session(String email, String accessCookie, String refreshCookie) {
+            this.email = email;
+            this.accessCookie = accessCookie;
+            this.refreshCookie = refreshCookie;
+        }
+
+        String email() {
+            return email;
+        }
+
+        String accessCookie() {
+            return accessCookie;
+        }
+
+        String refreshCookie() {
+            return refreshCookie;
+        }
+
+        void update(HttpResponse<?> response) {
+            cookie(response, "access_token").ifPresent(c -> accessCookie = c);
+            cookie(response, "refresh_token").ifPresent(c -> refreshCookie = c);
+        }
+    }
+
+    private final String baseUrl;
+    private final HttpClient http;
+
+    AuthClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    HttpClient http() {
+        return http;
+    }
+
+    void register(String email, String password) throws Exception {
+        http.send(registerRequest(email, password), HttpResponse.BodyHandlers.discarding());
+    }
+
+    String login(String email, String password) throws Exception {
+        return session(email, password).accessCookie();
+    }
+
+    Session session(String email, String password) throws Exception {
+        HttpResponse<Void> response = http.send(loginRequest(email, password), HttpResponse.BodyHandlers.discarding());
+        String access = cookie(response, "access_token")
+                .orElseThrow(() -> new IllegalStateException("Login failed: HTTP " + response.statusCode()));
+        return new Session(email, access, cookie(response, "refresh_token").orElse(null));
+    }
+
+    HttpRequest registerRequest(String email, String password) {
+        return json("/api/auth/register", """
+                {"email":"%s","password":"%s","firstName":"Load","lastName":"Test"}""".formatted(email, password));
+    }
+
+    HttpRequest loginRequest(String email, String password) {
+        return json("/api/auth/login", """
+                {"email":"%s","password":"%s"}""".formatted(email, password));
+    }
+
+    HttpRequest meRequest(String accessCookie) {
+        return get("/api/auth/me", accessCookie);
+    }
+
+    HttpRequest refreshRequest(String refreshCookie) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/refresh-token"))
+                .header("Cookie", refreshCookie)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    HttpRequest usersRequest(String accessCookie, int size) {
+        return get("/api/auth/users?size=" + size, accessCookie);
+    }
+
+    private HttpRequest get(String path, String cookie) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Cookie", cookie)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest json(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static Optional<String> cookie(HttpResponse<?> response, String name) {
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith(name + "=") && !c.startsWith(name + "=;"))
+                .map(c -> c.substring(0, c.indexOf(';')))
+                .findFirst();
+    }
+}
@@ -0,0 +1,208 @@
+package org.payetonkawa.auth.auth_service.loadtest;
+
+import org.payetonkawa.auth.auth_service.loadtest.AuthClient.Session;
+import org.payetonkawa.auth.auth_service.loadtest.TrafficMix.Operation;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Charge réaliste en boucle ouverte : les requêtes partent à un débit d'arrivée fixe ({@code loadtest.rate}/s),
+ * que les précédentes aient répondu ou non, selon un mélange pondéré d'opérations ({@code loadtest.mix}).
+ *
+ * <p>La latence rapportée est mesurée depuis l'instant où la requête <em>aurait dû</em> partir :
+ * un service qui ralentit ne ralentit pas le générateur, et l'attente accumulée est comptée
+ * (correction de l'omission coordonnée). Le temps de service seul est affiché à titre de comparaison.</p>
+ *
+ * <p>Propriétés : {@code loadtest.mix}, {@code loadtest.rate}, {@code loadtest.warmup}, {@code loadtest.duration},
+ * {@code loadtest.users} (comptes préparés), {@code loadtest.max-in-flight}, et {@code loadtest.url}
+ * pour viser une instance déjà démarrée (sinon une instance locale adossée à H2 est lancée).</p>
+ */
+public final class AuthLoadTest {
+
+    private static final String PASSWORD = "LoadTest!123";
+    private static final String ADMIN_EMAIL = "loadtest-admin@example.com";
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private static final class Stats {
+
+        final LatencyHistogram corrected = new LatencyHistogram();
+        final LatencyHistogram service = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+    }
+
+    private final AuthClient client;
+    private final TrafficMix mix;
+    private final List<Session> sessions;
+    private final Session admin;
+    private final AtomicLong registrations = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private AuthLoadTest(AuthClient client, TrafficMix mix, List<Session> sessions, Session admin) {
+        this.client = client;
+        this.mix = mix;
+        this.sessions = sessions;
+        this.admin = admin;
+    }
+
+    public static void main(String[] args) throws Exception {
+        TrafficMix mix = TrafficMix.parse(System.getProperty("loadtest.mix", "login=20,me=50,refresh=15,register=5,users=10"));
+        int rate = Integer.getInteger("loadtest.rate", 200);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+        int users = Integer.getInteger("loadtest.users", 100);
+        int maxInFlight = Integer.getInteger("loadtest.max-in-flight", 2000);
+        String url = System.getProperty("loadtest.url", "");
+
+        LocalAuthService local = url.isBlank()
+                ? LocalAuthService.start("loadtest",
+                        "admin.email=" + ADMIN_EMAIL,
+                        "admin.password=" + PASSWORD,
+                        // Toutes les connexions viennent de 127.0.0.1 : la limitation par IP fausserait la mesure
+                        "auth.login.rate-limit.enabled=false")
+                : null;
+        try {
+            AuthClient client = new AuthClient(local != null ? local.baseUrl() : url);
+            AuthLoadTest test = prepare(client, mix, users);
+
+            System.out.printf("Mix %s at %d req/s, warmup %d s, measure %d s%n",
+                    mix, rate, warmup.toSeconds(), duration.toSeconds());
+            test.run(rate, warmup, maxInFlight);
+            long start = System.nanoTime();
+            Map<Operation, Stats> stats = test.run(rate, duration, maxInFlight);
+            report(stats, rate, (System.nanoTime() - start) / 1e9);
+        } finally {
+            if (local != null) {
+                local.close();
+            }
+        }
+    }
+
+    // Comptes et sessions préparés avant la mesure : seules les opérations du mélange sont chronométrées
+    private static AuthLoadTest prepare(AuthClient client, TrafficMix mix, int users) throws Exception {
+        List<Session> sessions = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            String email = "load" + i + "@example.com";
+            client.register(email, PASSWORD);
+            sessions.add(client.session(email, PASSWORD));
+        }
+        Session admin = null;
+        if (mix.contains(Operation.USERS)) {
+            String adminEmail = System.getProperty("loadtest.admin-email", ADMIN_EMAIL);
+            admin = client.session(adminEmail, System.getProperty("loadtest.admin-password", PASSWORD));
+        }
+        return new AuthLoadTest(client, mix, sessions, admin);
+    }
+
+    private Map<Operation, Stats> run(int rate, Duration duration, int maxInFlight) throws InterruptedException {
+        Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) {
+            stats.put(op, new Stats());
+        }
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            parkUntil(intended);
+
+            Operation op = mix.pick(ThreadLocalRandom.current());
+            Stats opStats = stats.get(op);
+            if (!inFlight.tryAcquire()) {
+                // Trop de requêtes en attente : comptée comme échec, sans bloquer le calendrier d'arrivée
+                opStats.dropped.incrementAndGet();
+                continue;
+            }
+            Session session = sessions.get(ThreadLocalRandom.current().nextInt(sessions.size()));
+            long sent = System.nanoTime();
+            client.http().sendAsync(request(op, session), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long done = System.nanoTime();
+                        opStats.corrected.recordNanos(done - intended);
+                        opStats.service.recordNanos(done - sent);
+                        if (error != null || response.statusCode() >= 400) {
+                            opStats.errors.incrementAndGet();
+                        } else if (op == Operation.LOGIN || op == Operation.REFRESH) {
+                            session.update(response);
+                        }
+                        inFlight.release();
+                    });
+        }
+
+        if (!inFlight.tryAcquire(maxInFlight, 30, TimeUnit.SECONDS)) {
+            System.err.println("Some requests were still in flight after 30 s");
+        } else {
+            inFlight.release(maxInFlight);
+        }
+        return stats;
+    }
+
+    private HttpRequest request(Operation op, Session session) {
+        return switch (op) {
+            case REGISTER -> client.registerRequest(
+                    "reg-" + runId + "-" + registrations.incrementAndGet() + "@example.com", PASSWORD);
+            case LOGIN -> client.loginRequest(session.email(), PASSWORD);
+            case REFRESH -> client.refreshRequest(session.refreshCookie());
+            case ME -> client.meRequest(session.accessCookie());
+            case USERS -> client.usersRequest(admin.accessCookie(), 50);
+        };
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static void report(Map<Operation, Stats> stats, int rate, double elapsedSeconds) {
+        System.out.printf("%n%-9s %9s %9s %8s", "op", "count", "req/s", "errors");
+        for (double p : PERCENTILES) {
+            System.out.printf(" %9s", "p" + (p == Math.floor(p) ? String.valueOf((int) p) : String.valueOf(p)));
+        }
+        System.out.printf(" %9s %12s%n", "max", "svc p99");
+
+        long totalCount = 0;
+        long totalErrors = 0;
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            long count = s.corrected.count();
+            long errors = s.errors.get() + s.dropped.get();
+            if (count == 0 && errors == 0) {
+                continue;
+            }
+            totalCount += count;
+            totalErrors += errors;
+            printRow(entry.getKey().label(), count, count / elapsedSeconds, errors, s.corrected, s.service);
+        }
+        System.out.printf("%ntotal: %d responses, %.1f req/s for a target of %d req/s, %d errors%n",
+                totalCount, totalCount / elapsedSeconds, rate, totalErrors);
+        System.out.println("Latencies in ms from the intended send time (coordinated-omission corrected);"
+                + " 'svc p99' is the uncorrected service time.");
+    }
+
+    private static void printRow(String label, long count, double throughput, long errors,
+                                 LatencyHistogram corrected, LatencyHistogram service) {
+        System.out.printf("%-9s %9d %9.1f %8d", label, count, throughput, errors);
+        for (double p : PERCENTILES) {
+            System.out.printf(" %9.2f", corrected.percentileMillis(p));
+        }
+        System.out.printf(" %9.2f %12.2f%n", corrected.percentileMillis(100), service.percentileMillis(99));
+    }
+}
@@ -0,0 +1,74 @@
+package org.payetonkawa.auth.auth_service.loadtest;
+
+import org.payetonkawa.auth.auth_service.AuthServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Démarre une instance locale du service sur un port libre, adossée à une base H2 en mémoire
+ * et à une paire de clés RSA générée pour l'occasion.
+ */
+public final class LocalAuthService implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final int port;
+
+    private LocalAuthService(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    public static LocalAuthService start(String name, String... extraProperties)
+            throws IOException, GeneralSecurityException {
+        Path keyDir = Files.createTempDirectory("auth-loadtest-keys");
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair pair = generator.generateKeyPair();
+        Path privateKey = writePem(keyDir.resolve("private.pem"), "PRIVATE KEY", pair.getPrivate().getEncoded());
+        Path publicKey = writePem(keyDir.resolve("public.pem"), "PUBLIC KEY", pair.getPublic().getEncoded());
+
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                "auth.jwt.private-key=file:" + privateKey,
+                "auth.jwt.public-key=file:" + publicKey
+        ));
+        properties.addAll(List.of(extraProperties));
+
+        // Arguments de ligne de commande : prioritaires sur application-test.properties
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AuthServiceApplication.class)
+                .profiles("test")
+                .run(properties.stream().map(p -> "--" + p).toArray(String[]::new));
+        return new LocalAuthService(context);
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private static Path writePem(Path file, String type, byte[] der) throws IOException {
+        String pem = "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder().encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+        return Files.writeString(file, pem, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,90 @@
+package org.payetonkawa.auth.auth_service.loadtest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Répartition pondérée des opérations, par exemple {@code login=20,me=50,refresh=15,register=5,users=10}.
+ */
+final class TrafficMix {
+
+    enum Operation {
+        REGISTER, LOGIN, REFRESH, ME, USERS;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private TrafficMix(Map<Operation, Integer> weights) {
+        List<Operation> ops = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int sum = 0;
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            if (entry.getValue() > 0) {
+                sum += entry.getValue();
+                ops.add(entry.getKey());
+                cumulative.add(sum);
+            }
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("Traffic mix has no operation with a positive weight");
+        }
+        this.operations = ops.toArray(Operation[]::new);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+        this.totalWeight = sum;
+    }
+
+    static TrafficMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(pair[1].trim()));
+        }
+        return new TrafficMix(weights);
+    }
+
+    Operation pick(RandomGenerator random) {
+        int draw = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    boolean contains(Operation operation) {
+        for (Operation op : operations) {
+            if (op == operation) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < operations.length; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(operations[i].label()).append('=').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return text.toString();
+    }
+}
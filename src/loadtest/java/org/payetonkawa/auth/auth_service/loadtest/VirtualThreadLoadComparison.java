@@ -0,0 +1,114 @@
+package org.payetonkawa.auth.auth_service.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compare le mode threads de plateforme et le mode threads virtuels ({@code spring.threads.virtual.enabled})
+ * sur la même charge : {@code concurrency} clients en boucle fermée sur GET /api/auth/me (JDBC)
+ * ou POST /api/auth/login (JDBC + BCrypt). Affiche débit, p50 et p99 pour chaque mode.
+ *
+ * <p>Propriétés : {@code loadtest.scenario} (me|login), {@code loadtest.concurrency}, {@code loadtest.warmup},
+ * {@code loadtest.duration}.</p>
+ */
+public final class VirtualThreadLoadComparison {
+
+    private record Result(String mode, long requests, long errors, double throughput, long[] sortedNanos) {
+
+        double percentileMillis(double percentile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+
+    private VirtualThreadLoadComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String scenario = System.getProperty("loadtest.scenario", "me");
+        int concurrency = Integer.getInteger("loadtest.concurrency", 400);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+
+        List<Result> results = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            try (LocalAuthService service = LocalAuthService.start("vt-" + mode,
+                    "spring.threads.virtual.enabled=" + virtual)) {
+                AuthClient client = new AuthClient(service.baseUrl());
+                client.register("load@example.com", "LoadTest!123");
+                String cookie = client.login("load@example.com", "LoadTest!123");
+
+                HttpRequest request = "login".equals(scenario)
+                        ? client.loginRequest("load@example.com", "LoadTest!123")
+                        : client.meRequest(cookie);
+
+                run(client.http(), request, concurrency, warmup, mode);
+                results.add(run(client.http(), request, concurrency, duration, mode));
+            }
+        }
+
+        System.out.printf("%nScenario '%s', %d concurrent clients, %d s%n", scenario, concurrency, duration.toSeconds());
+        System.out.printf("%-10s %12s %10s %10s %10s %10s%n", "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (Result r : results) {
+            System.out.printf("%-10s %12.1f %10.2f %10.2f %10.2f %10d%n", r.mode(), r.throughput(),
+                    r.percentileMillis(50), r.percentileMillis(99), r.percentileMillis(100), r.errors());
+        }
+    }
+
+    private static Result run(HttpClient http, HttpRequest request, int concurrency, Duration duration, String mode)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<long[]>> workers = new ArrayList<>();
+        long[] errors = new long[concurrency];
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                int worker = i;
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors[worker]++;
+                            }
+                        } catch (Exception e) {
+                            errors[worker]++;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - sent;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        long[] all = new long[0];
+        for (Future<long[]> worker : workers) {
+            long[] latencies = worker.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        Arrays.sort(all);
+        return new Result(mode, all.length, Arrays.stream(errors).sum(), all.length / elapsedSeconds, all);
+    }
+}
@@ -0,0 +1,51 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.payetonkawa.auth.auth_service.model.User;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Remplit {@code users.name_key} pour les lignes créées avant son ajout.
+ * <p>
+ * En Java plutôt qu'en SQL : la clé retire les accents ({@link User#searchKey}), ce que ni H2 ni PostgreSQL
+ * ne savent faire sans extension. Lecture en flux et mises à jour batchées, dans la transaction de la migration.
+ */
+public class V2__BackfillNameKey extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        try (Statement select = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement("update users set name_key = ? where id = ?")) {
+            select.setFetchSize(BATCH_SIZE);
+            try (ResultSet rows = select.executeQuery("select id, last_name, first_name from users"
+                    + " where name_key is null and (last_name is not null or first_name is not null)")) {
+                int pending = 0;
+                while (rows.next()) {
+                    String key = User.nameKey(rows.getString("last_name"), rows.getString("first_name"));
+                    if (key == null) {
+                        continue;
+                    }
+                    update.setString(1, key);
+                    update.setLong(2, rows.getLong("id"));
+                    update.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    update.executeBatch();
+                }
+            }
+        }
+    }
+}
@@ -18,6 +18,8 @@ public class CorsConfig {
                         .allowedOrigins("http://localhost:8080")  // Autoriser le frontend
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        // Pagination du listing admin : sans exposition, le front ne lit ni le curseur ni le total
+                        .exposedHeaders("X-Next-Cursor", "X-Total-Estimate")
                         .allowCredentials(true);
             }
         };
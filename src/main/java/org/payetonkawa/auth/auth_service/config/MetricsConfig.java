@@ -0,0 +1,25 @@
+package org.payetonkawa.auth.auth_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.payetonkawa.auth.auth_service.controller.AuthMetricsInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    // Absent dans les tranches de test MVC : l'intercepteur n'est alors pas enregistré
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public MetricsConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        meterRegistry.ifAvailable(meters -> registry.addInterceptor(new AuthMetricsInterceptor(meters))
+                .addPathPatterns("/api/auth/**"));
+    }
+}
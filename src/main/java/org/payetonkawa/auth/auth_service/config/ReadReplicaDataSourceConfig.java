@@ -0,0 +1,73 @@
+package org.payetonkawa.auth.auth_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Routage lecture/écriture, actif seulement si {@code auth.datasource.replica.url} est défini.
+ * Les transactions {@code readOnly} partent sur le réplica, tout le reste sur le primaire
+ * ({@code spring.datasource}). La connexion physique n'est choisie qu'à la première requête SQL,
+ * une fois le drapeau lecture seule de la transaction posé. Les migrations Flyway passent directement par le primaire.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "auth.datasource.replica", name = "url")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("auth.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${auth.datasource.replica.url}") String url,
+                                              @Value("${auth.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${auth.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setReadOnly(true);
+        dataSource.setPoolName("replica");
+        // Pas d'échec au démarrage si le réplica est absent : le repli sur le primaire prend le relais
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaFailoverDataSource readOnlyDataSource(HikariDataSource primaryDataSource,
+                                                        HikariDataSource replicaDataSource,
+                                                        @Value("${auth.datasource.replica.max-lag:PT5S}") Duration maxLag,
+                                                        @Value("${auth.datasource.replica.fallback:true}") boolean fallback,
+                                                        MeterRegistry meterRegistry) {
+        return new ReplicaFailoverDataSource(primaryDataSource, replicaDataSource, maxLag, fallback, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaFailoverDataSource readOnlyDataSource) {
+        return routing(primaryDataSource, readOnlyDataSource);
+    }
+
+    static LazyConnectionDataSourceProxy routing(DataSource primary, DataSource readOnly) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(readOnly);
+        return proxy;
+    }
+}
@@ -0,0 +1,126 @@
+package org.payetonkawa.auth.auth_service.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Source des transactions en lecture seule : le réplica tant qu'il répond et que son retard reste
+ * sous {@code auth.datasource.replica.max-lag}, sinon le primaire (si le repli est autorisé).
+ * L'état est réévalué périodiquement ; un échec d'obtention de connexion bascule immédiatement sur le primaire.
+ */
+public class ReplicaFailoverDataSource extends AbstractDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaFailoverDataSource.class);
+
+    // Retard de rejeu d'un serveur PostgreSQL en réplication ; 0 sur un primaire (pas en recovery)
+    static final String POSTGRES_LAG_SQL = "select case when pg_is_in_recovery() "
+            + "then coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) else 0 end";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final boolean fallbackEnabled;
+    private final Counter fallbackCounter;
+
+    private volatile boolean replicaAvailable = true;
+
+    public ReplicaFailoverDataSource(DataSource primary, DataSource replica, Duration maxLag,
+                                     boolean fallbackEnabled, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.fallbackEnabled = fallbackEnabled;
+        this.fallbackCounter = Counter.builder("datasource.replica.fallback").register(meterRegistry);
+        Gauge.builder("datasource.replica.available", this, ds -> ds.replicaAvailable ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    // Même repli quel que soit le mode d'authentification : réplica d'abord, primaire s'il est indisponible
+    private Connection connect(Connector connector) throws SQLException {
+        if (replicaAvailable || !fallbackEnabled) {
+            try {
+                return connector.open(replica);
+            } catch (SQLException e) {
+                if (!fallbackEnabled) {
+                    throw e;
+                }
+                markUnavailable("connection failed: " + e.getMessage());
+            }
+        }
+        fallbackCounter.increment();
+        return connector.open(primary);
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.datasource.replica.check-interval:PT5S}",
+            initialDelayString = "${auth.datasource.replica.check-interval:PT5S}")
+    public void checkReplica() {
+        try (Connection connection = replica.getConnection()) {
+            Duration lag = lag(connection);
+            if (lag.compareTo(maxLag) > 0) {
+                markUnavailable("replication lag " + lag + " exceeds " + maxLag);
+                return;
+            }
+            if (!replicaAvailable) {
+                logger.info("Read replica is back, routing read-only transactions to it again");
+            }
+            replicaAvailable = true;
+        } catch (SQLException e) {
+            markUnavailable("health check failed: " + e.getMessage());
+        }
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    private void markUnavailable(String reason) {
+        if (replicaAvailable) {
+            logger.warn("Read replica unavailable ({}), read-only transactions {}", reason,
+                    fallbackEnabled ? "fall back to the primary" : "will fail");
+        }
+        replicaAvailable = false;
+    }
+
+    private static Duration lag(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        if (!"PostgreSQL".equals(metaData.getDatabaseProductName())) {
+            if (!connection.isValid(1)) {
+                throw new SQLException("Replica connection is not valid");
+            }
+            return Duration.ZERO;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(POSTGRES_LAG_SQL)) {
+            rs.next();
+            return Duration.ofMillis((long) (rs.getDouble(1) * 1000));
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package org.payetonkawa.auth.auth_service.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.payetonkawa.auth.auth_service.security.BCryptCostCalibrator;
 import org.payetonkawa.auth.auth_service.security.JwtAuthFilter;
 import org.payetonkawa.auth.auth_service.security.JwtService;
+import org.payetonkawa.auth.auth_service.security.RoleCodebook;
+import org.payetonkawa.auth.auth_service.security.TimedPasswordEncoder;
+import org.payetonkawa.auth.auth_service.security.TokenDenylist;
+import org.payetonkawa.auth.auth_service.security.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,17 +17,28 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+import java.util.Map;
+
 @Configuration
 public class SecurityConfig {
 
     private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenDenylist tokenDenylist;
+    private final RoleCodebook roleCodebook;
 
-    public SecurityConfig(JwtService jwtService) {
+    public SecurityConfig(JwtService jwtService, VerifiedTokenCache verifiedTokenCache, TokenDenylist tokenDenylist,
+                          RoleCodebook roleCodebook) {
         this.jwtService = jwtService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenDenylist = tokenDenylist;
+        this.roleCodebook = roleCodebook;
     }
 
     @Bean
@@ -36,8 +54,14 @@ public class SecurityConfig {
                                 "/api/auth/register",
                                 "/api/auth/refresh-token",
                                 "/api/auth/logout",
-                                "/api/auth/me"
+                                "/api/auth/me",
+                                "/.well-known/jwks.json",
+                                "/actuator/health",
+                                "/actuator/health/liveness",
+                                "/actuator/health/readiness",
+                                "/actuator/prometheus"
                         ).permitAll()
+                        .requestMatchers("/api/auth/tokens/**").hasRole("ADMIN")  // Révocation de jetons par jti
                         .requestMatchers("/api/auth/roles/**").hasRole("ADMIN")  // Autorise l'accès aux rôles uniquement pour les ADMIN
                         .requestMatchers("/api/auth/users/*/roles").hasRole("ADMIN")  // Autorise la gestion des rôles utilisateurs uniquement pour les ADMIN
                         .requestMatchers("/api/auth/users/**").hasRole("ADMIN")  // Autorise les ADMIN à accéder à la liste des utilisateurs
@@ -45,13 +69,21 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .addFilterBefore(new JwtAuthFilter(jwtService), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new JwtAuthFilter(jwtService, verifiedTokenCache, tokenDenylist, roleCodebook), UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.password.bcrypt.strength:10}") int strength,
+                                           @Value("${auth.password.bcrypt.target-latency:}") Duration targetLatency,
+                                           MeterRegistry meterRegistry) {
+        int cost = targetLatency != null ? BCryptCostCalibrator.calibrate(targetLatency) : strength;
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(cost)));
+        // Hachages historiques stockés sans préfixe {id} : toujours vérifiables, puis migrés au login
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return new TimedPasswordEncoder(encoder, meterRegistry);
     }
 
     @Bean
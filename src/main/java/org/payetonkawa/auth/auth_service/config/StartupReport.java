@@ -0,0 +1,124 @@
+package org.payetonkawa.auth.auth_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Rapport de démarrage : durée de chaque phase, journalisée une fois l'application prête et publiée
+ * dans la jauge {@code startup.phase{phase}} pour suivre les régressions d'une version à l'autre.
+ * <ul>
+ *   <li>{@code jvm} : du lancement de la JVM à l'appel de {@code SpringApplication.run} ;</li>
+ *   <li>{@code context} : création et rafraîchissement du contexte, démarrage du serveur web ;</li>
+ *   <li>{@code ready} : jusqu'à l'état prêt (runners compris) ;</li>
+ *   <li>{@code bootstrap} : création des données de référence, qui peut se terminer après {@code ready}.</li>
+ * </ul>
+ * Lancée par {@code main}, l'application enregistre aussi ses étapes de démarrage
+ * ({@link BufferingApplicationStartup}) : les beans les plus lents à créer sont alors ajoutés au rapport,
+ * et le détail complet est disponible sur {@code /actuator/startup}.
+ */
+@Component
+public class StartupReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupReport.class);
+    private static final int SLOWEST_BEANS = 5;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Duration> phases = new ConcurrentHashMap<>();
+
+    public StartupReport(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String phase, Duration duration) {
+        if (phases.put(phase, duration) == null) {
+            TimeGauge.builder("startup.phase", phases, TimeUnit.MILLISECONDS,
+                            p -> p.getOrDefault(phase, Duration.ZERO).toMillis())
+                    .tag("phase", phase)
+                    .register(meterRegistry);
+        }
+    }
+
+    public Map<String, Duration> phases() {
+        return Map.copyOf(phases);
+    }
+
+    @EventListener
+    public void onStarted(ApplicationStartedEvent event) {
+        if (event.getTimeTaken() != null) {
+            record("context", event.getTimeTaken());
+        }
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        if (event.getTimeTaken() == null) {
+            return;
+        }
+        Duration ready = event.getTimeTaken();
+        Duration sinceJvmStart = Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime());
+        record("jvm", sinceJvmStart.minus(ready).isNegative() ? Duration.ZERO : sinceJvmStart.minus(ready));
+        record("ready", ready);
+
+        StringBuilder report = new StringBuilder()
+                .append("Startup: jvm ").append(millis("jvm"))
+                .append(", context ").append(millis("context"))
+                .append(", ready ").append(millis("ready"))
+                .append(" (").append(sinceJvmStart.toMillis()).append(" ms since JVM start")
+                .append(", aot=").append(AotDetector.useGeneratedArtifacts())
+                .append(", appcds=").append(usesApplicationArchive())
+                .append(')');
+        if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup buffering) {
+            report.append("; slowest beans: ").append(slowestBeans(buffering.getBufferedTimeline()));
+        }
+        logger.info(report.toString());
+    }
+
+    // Archive CDS de l'application (profil fast-start), et non la seule archive par défaut du JDK
+    private static boolean usesApplicationArchive() {
+        return System.getProperty("java.vm.info", "").contains("sharing")
+                && ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile="));
+    }
+
+    private String millis(String phase) {
+        Duration duration = phases.get(phase);
+        return duration == null ? "n/a" : duration.toMillis() + " ms";
+    }
+
+    // Durées inclusives : un bean compte aussi le temps de création de ses dépendances
+    private static String slowestBeans(StartupTimeline timeline) {
+        return timeline.getEvents().stream()
+                .filter(e -> "spring.beans.instantiate".equals(e.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(SLOWEST_BEANS)
+                .map(e -> beanName(e.getStartupStep()) + " " + e.getDuration().toMillis() + " ms")
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String beanName(StartupStep step) {
+        return StreamSupport.stream(step.getTags().spliterator(), false)
+                .filter(tag -> "beanName".equals(tag.getKey()))
+                .map(StartupStep.Tag::getValue)
+                .findFirst()
+                .orElse("?");
+    }
+}
@@ -1,11 +1,16 @@
 package org.payetonkawa.auth.auth_service.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.payetonkawa.auth.auth_service.dto.*;
 import org.payetonkawa.auth.auth_service.model.Status;
 import org.payetonkawa.auth.auth_service.model.User;
-import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.security.LoginRateLimitedException;
+import org.payetonkawa.auth.auth_service.security.LoginRateLimiter;
+import org.payetonkawa.auth.auth_service.security.PasswordHashingBusyException;
+import org.payetonkawa.auth.auth_service.security.VerifiedToken;
 import org.payetonkawa.auth.auth_service.service.AuthService;
+import org.payetonkawa.auth.auth_service.service.EntityTagCache;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
@@ -21,16 +26,19 @@ import java.util.Set;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
     @Value("${security.cookie.secure:false}") // fallback false si non défini
     private boolean secureCookies;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, LoginRateLimiter loginRateLimiter) {
         this.authService = authService;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     @PostMapping("/register")
     public ResponseEntity<String> register(@RequestBody @Valid RegisterRequest req) {
         if (authService.findByEmail(req.email()).isPresent()) {
+            AuthOutcome.CONFLICT.mark();
             return ResponseEntity.badRequest().body("Email already exists");
         }
 
@@ -53,10 +61,19 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<String> login(@RequestBody @Valid LoginRequest req) {
+    public ResponseEntity<String> login(@RequestBody @Valid LoginRequest req, HttpServletRequest request) {
+        // Avant toute lecture en base et tout BCrypt : une rafale de tentatives ne coûte presque rien
+        loginRateLimiter.check(request.getRemoteAddr(), req.email());
+
+        // Compte créé à l'instant sur cette instance : le réplica peut ne pas le voir encore. Pas de seconde lecture
+        // pour un e-mail inconnu quelconque (bourrage d'identifiants) ; un réplica indisponible bascule déjà seul
         var opt = authService.findByEmail(req.email());
+        if (opt.isEmpty() && authService.changedRecently(req.email())) {
+            opt = authService.findByEmailOnPrimary(req.email());
+        }
 
         if (opt.isEmpty() || !authService.checkPassword(opt.get(), req.password())) {
+            AuthOutcome.BAD_CREDENTIALS.mark();
             return ResponseEntity.badRequest().body("Identifiants invalides");
         }
 
@@ -64,17 +81,17 @@ public class AuthController {
 
         // 🚫 Bloquer si inactif
         if (user.getStatus() != Status.ACTIVE) {
+            AuthOutcome.INACTIVE.mark();
             return ResponseEntity.status(403).body("Votre compte est inactif. Veuillez contacter un administrateur.");
         }
 
-        user.setLastLogin(LocalDateTime.now());
-        authService.save(user);
+        authService.recordLogin(user);
+        authService.rehashPasswordIfNeeded(user, req.password());
 
         String accessToken = authService.generateAccessToken(user);
         String refreshToken = authService.generateRefreshToken(user);
 
-        ResponseCookie accessCookie = ResponseCookie.from("access_token", accessToken)
-                .httpOnly(true).secure(secureCookies).sameSite("Strict").path("/").maxAge(900).build();
+        ResponseCookie accessCookie = accessCookie(accessToken);
 
         ResponseCookie refreshCookie = ResponseCookie.from("refresh_token", refreshToken)
                 .httpOnly(true).secure(secureCookies).sameSite("Strict").path("/").maxAge(86400).build();
@@ -87,15 +104,19 @@ public class AuthController {
 
     @PostMapping("/refresh-token")
     public ResponseEntity<String> refreshToken(@CookieValue(name = "refresh_token", required = false) String token) {
-        if (token == null || !authService.validateToken(token)) {
+        VerifiedToken verified = token == null ? null : authService.verifyToken(token);
+        if (verified == null || !verified.isValid()) {
+            AuthOutcome.INVALID_TOKEN.mark();
             return ResponseEntity.badRequest().body("Invalid refresh token");
         }
 
-        String email = authService.extractEmailFromToken(token);
-        String newAccessToken = authService.generateAccessToken(authService.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found")));
+        String email = verified.subject();
+        User user = authService.findByEmail(email)
+                .or(() -> authService.findByEmailOnPrimary(email))
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        String newAccessToken = authService.generateAccessToken(user);
 
-        ResponseCookie newAccessCookie = ResponseCookie.from("access_token", newAccessToken)
-                .httpOnly(true).secure(secureCookies).sameSite("Strict").path("/").maxAge(900).build();
+        ResponseCookie newAccessCookie = accessCookie(newAccessToken);
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.SET_COOKIE, newAccessCookie.toString())
@@ -103,7 +124,18 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<String> logout() {
+    public ResponseEntity<String> logout(
+            @CookieValue(name = "access_token", required = false) String accessToken,
+            @CookieValue(name = "refresh_token", required = false) String refreshToken
+    ) {
+        // Les jetons restent révoqués jusqu'à leur expiration, même si un cookie a été copié
+        if (accessToken != null) {
+            authService.revokeToken(accessToken);
+        }
+        if (refreshToken != null) {
+            authService.revokeToken(refreshToken);
+        }
+
         ResponseCookie expiredAccess = ResponseCookie.from("access_token", "")
                 .httpOnly(true).secure(secureCookies).sameSite("Strict").path("/").maxAge(0).build();
 
@@ -117,75 +149,81 @@ public class AuthController {
 
     @GetMapping("/me")
     public ResponseEntity<UserProfileResponse> me(
-            @CookieValue(name = "access_token", required = false) String token
+            @CookieValue(name = "access_token", required = false) String token,
+            @RequestAttribute(name = VerifiedToken.REQUEST_ATTRIBUTE, required = false) VerifiedToken verifiedByFilter
     ) {
-        if (token == null || !authService.validateToken(token)) {
+        VerifiedToken verified = verifiedAccessToken(verifiedByFilter, token);
+        if (!verified.isValid()) {
             return ResponseEntity.status(401).build();
         }
 
-        String email = authService.extractEmailFromToken(token);
-        var optionalUser = authService.findByEmail(email);
-
-        if (optionalUser.isEmpty()) {
-            return ResponseEntity.status(404).build();
+        if (verified.profile() != null) {
+            if (authService.isProfileCurrent(verified)) {
+                // Profil signé dans le jeton : aucune lecture en base ni dans le cache
+                return withTag(verified.profile());
+            }
+            // Profil modifié depuis l'émission du jeton : lecture sur le primaire (le réplica peut ne pas voir
+            // encore la modification) et nouveau jeton d'accès
+            return authService.findByEmailOnPrimary(verified.subject())
+                    .map(this::profileWithFreshToken)
+                    .orElse(ResponseEntity.status(404).build());
         }
 
-        User user = optionalUser.get();
-
-        // Récupération de tous les noms de rôles
-        List<String> roleNames = user.getRoles()
-                .stream()
-                .map(Role::getName)
-                .toList();
-
-        UserProfileResponse response = new UserProfileResponse(
-                user.getId(),
-                user.getEmail(),
-                user.getFirstName(),
-                user.getLastName(),
-                user.getStatus().name(),
-                user.getCreatedAt(),
-                user.getLastLogin(),
-                roleNames
-        );
+        return authService.getProfile(verified.subject())
+                .map(this::withTag)
+                .orElse(ResponseEntity.status(404).build());
+    }
 
-        return ResponseEntity.ok(response);
+    // Avec If-None-Match correspondant, Spring MVC répond 304 sans sérialiser le profil
+    private ResponseEntity<UserProfileResponse> withTag(UserProfileResponse profile) {
+        return ConditionalGet.ok(EntityTagCache.userTag(profile)).body(profile);
     }
 
 
     @PutMapping("/me")
     public ResponseEntity<?> updateProfile(
             @CookieValue(name = "access_token", required = false) String token,
+            @RequestAttribute(name = VerifiedToken.REQUEST_ATTRIBUTE, required = false) VerifiedToken verifiedByFilter,
             @RequestBody @Valid UpdateProfileRequest req
     ) {
-        if (token == null || !authService.validateToken(token)) {
+        VerifiedToken verified = verifiedAccessToken(verifiedByFilter, token);
+        if (!verified.isValid()) {
             return ResponseEntity.status(401).build();
         }
 
-        String email = authService.extractEmailFromToken(token);
-        User user = authService.findByEmail(email).orElseThrow();
+        String email = verified.subject();
+        User user = authService.findByEmailOnPrimary(email).orElseThrow();
 
         user.setFirstName(req.firstName());
         user.setLastName(req.lastName());
 
         authService.save(user);
 
+        // Le jeton d'accès porte l'ancien profil : il est remplacé tout de suite
+        if (verified.profile() != null) {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, accessCookie(authService.generateAccessToken(user)).toString())
+                    .body("Profil mis à jour");
+        }
         return ResponseEntity.ok("Profil mis à jour");
     }
 
     @PutMapping("/change-password")
     public ResponseEntity<?> changePassword(
             @CookieValue(name = "access_token", required = false) String token,
+            @RequestAttribute(name = VerifiedToken.REQUEST_ATTRIBUTE, required = false) VerifiedToken verifiedByFilter,
             @RequestBody @Valid ChangePasswordRequest req
     ) {
-        if (token == null || !authService.validateToken(token)) {
+        VerifiedToken verified = verifiedAccessToken(verifiedByFilter, token);
+        if (!verified.isValid()) {
             return ResponseEntity.status(401).build();
         }
 
-        String email = authService.extractEmailFromToken(token);
-        User user = authService.findByEmail(email).orElseThrow();
+        String email = verified.subject();
+        User user = authService.findByEmailOnPrimary(email).orElseThrow();
 
         if (!authService.checkPassword(user, req.oldPassword())) {
+            AuthOutcome.BAD_CREDENTIALS.mark();
             return ResponseEntity.status(403).body("Ancien mot de passe incorrect");
         }
 
@@ -199,8 +237,44 @@ public class AuthController {
         return ResponseEntity.ok("Mot de passe mis à jour avec succès");
     }
 
+    // Limitation de débit des connexions, par IP ou par compte
+    @ExceptionHandler(LoginRateLimitedException.class)
+    public ResponseEntity<String> loginRateLimited(LoginRateLimitedException e) {
+        AuthOutcome.RATE_LIMITED.mark();
+        return ResponseEntity.status(429)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+                .body("Trop de tentatives de connexion, veuillez réessayer plus tard.");
+    }
 
+    // Pool de hachage saturé : réponse immédiate plutôt qu'une attente sans limite
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<String> hashingBusy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+                .body("Service temporairement surchargé, veuillez réessayer.");
+    }
 
+    private ResponseEntity<UserProfileResponse> profileWithFreshToken(User user) {
+        UserProfileResponse profile = AuthService.toProfile(user);
+        ResponseEntity.BodyBuilder response = ConditionalGet.ok(EntityTagCache.userTag(profile));
+        if (user.getStatus() == Status.ACTIVE) {
+            response.header(HttpHeaders.SET_COOKIE, accessCookie(authService.generateAccessToken(user)).toString());
+        }
+        return response.body(profile);
+    }
 
+    private ResponseCookie accessCookie(String token) {
+        return ResponseCookie.from("access_token", token)
+                .httpOnly(true).secure(secureCookies).sameSite("Strict").path("/").maxAge(900).build();
+    }
 
+    // Réutilise le jeton déjà vérifié par JwtAuthFilter ; sinon (filtre absent) vérifie une seule fois
+    private VerifiedToken verifiedAccessToken(VerifiedToken verifiedByFilter, String token) {
+        if (verifiedByFilter != null) {
+            return verifiedByFilter;
+        }
+        return token == null
+                ? VerifiedToken.failed(VerifiedToken.Failure.MISSING)
+                : authService.verifyToken(token);
+    }
 }
@@ -0,0 +1,67 @@
+package org.payetonkawa.auth.auth_service.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer {@code auth.requests} par endpoint de {@link AuthController} et par issue ({@link AuthOutcome}).
+ * Tags : nom de la méthode du contrôleur et issue, deux ensembles fermés.
+ */
+public class AuthMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = AuthMetricsInterceptor.class.getName() + ".start";
+
+    private final MeterRegistry meterRegistry;
+
+    public AuthMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (isAuthEndpoint(handler)) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof Long start) || !isAuthEndpoint(handler)) {
+            return;
+        }
+        AuthOutcome outcome = request.getAttribute(AuthOutcome.REQUEST_ATTRIBUTE) instanceof AuthOutcome marked
+                ? marked
+                : fromStatus(ex != null ? 500 : response.getStatus());
+
+        Timer.builder("auth.requests")
+                .description("AuthController request time by endpoint and outcome")
+                .tag("endpoint", ((HandlerMethod) handler).getMethod().getName())
+                .tag("outcome", outcome.tag())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static boolean isAuthEndpoint(Object handler) {
+        return handler instanceof HandlerMethod method && method.getBeanType() == AuthController.class;
+    }
+
+    private static AuthOutcome fromStatus(int status) {
+        if (status < 400) {
+            return AuthOutcome.SUCCESS;
+        }
+        return switch (status) {
+            case 401 -> AuthOutcome.INVALID_TOKEN;
+            case 404 -> AuthOutcome.NOT_FOUND;
+            case 503 -> AuthOutcome.OVERLOADED;
+            default -> status < 500 ? AuthOutcome.INVALID_REQUEST : AuthOutcome.ERROR;
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package org.payetonkawa.auth.auth_service.controller;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Issue métier d'un appel à {@link AuthController}, utilisée comme tag du timer {@code auth.requests}.
+ * Ensemble fermé de valeurs : cardinalité bornée.
+ */
+public enum AuthOutcome {
+    SUCCESS,
+    BAD_CREDENTIALS,
+    INACTIVE,
+    INVALID_TOKEN,
+    NOT_FOUND,
+    CONFLICT,
+    INVALID_REQUEST,
+    OVERLOADED,
+    RATE_LIMITED,
+    ERROR;
+
+    static final String REQUEST_ATTRIBUTE = "authOutcome";
+
+    String tag() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Associe cette issue à la requête en cours ; sans marquage, elle est déduite du statut HTTP.
+     */
+    void mark() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(REQUEST_ATTRIBUTE, this, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.payetonkawa.auth.auth_service.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+
+/**
+ * Lectures conditionnelles ({@code If-None-Match}).
+ * <p>
+ * Quand le corps est construit, l'ETag est posé sur la {@link ResponseEntity} ({@link #ok}) : Spring MVC répond
+ * alors 304 lui-même, sans sérialiser le corps. {@link #notModified} vérifie la requête plus tôt, contre un ETag
+ * déjà connu, pour ne pas relire l'entité du tout.
+ * <p>
+ * {@code private, no-cache} remplace le {@code no-store} posé par défaut par Spring Security : le client peut garder
+ * la réponse, mais doit la revalider à chaque fois.
+ */
+final class ConditionalGet {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalGet() {
+    }
+
+    static ResponseEntity.BodyBuilder ok(String tag) {
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(tag);
+    }
+
+    /**
+     * 304 si l'un des ETags de {@code If-None-Match} correspond à {@code knownTag} (comparaison faible, RFC 9110).
+     */
+    static <T> Optional<ResponseEntity<T>> notModified(String ifNoneMatch, Optional<String> knownTag) {
+        if (knownTag.isEmpty() || !matches(ifNoneMatch, knownTag.get())) {
+            return Optional.empty();
+        }
+        return Optional.of(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(REVALIDATE)
+                .eTag(knownTag.get())
+                .build());
+    }
+
+    /**
+     * Vrai si {@code If-None-Match} (liste, {@code *} ou ETags faibles {@code W/}) désigne {@code knownTag}.
+     */
+    static boolean matches(String ifNoneMatch, String knownTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        ETag current = ETag.create(knownTag);
+        return ETag.parse(ifNoneMatch).stream()
+                .anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
+    }
+}
@@ -0,0 +1,47 @@
+package org.payetonkawa.auth.auth_service.controller;
+
+import org.payetonkawa.auth.auth_service.security.SigningKeyRing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController
+public class JwksController {
+
+    private final SigningKeyRing keyRing;
+    private final CacheControl cacheControl;
+
+    public JwksController(SigningKeyRing keyRing,
+                          @Value("${auth.jwt.jwks.max-age:PT5M}") Duration maxAge) {
+        this.keyRing = keyRing;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getJwks(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        SigningKeyRing.JsonWebKeySet jwks = keyRing.jwks();
+
+        // Comparaison faible : un proxy peut avoir affaibli l'ETag ou en envoyer plusieurs
+        if (ConditionalGet.matches(ifNoneMatch, jwks.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(jwks.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(jwks.etag())
+                .cacheControl(cacheControl)
+                .body(jwks.body());
+    }
+}
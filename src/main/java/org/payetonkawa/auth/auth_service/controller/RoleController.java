@@ -5,6 +5,7 @@ import org.payetonkawa.auth.auth_service.dto.RoleCreateRequest;
 import org.payetonkawa.auth.auth_service.dto.RoleUpdateRequest;
 import org.payetonkawa.auth.auth_service.model.Role;
 import org.payetonkawa.auth.auth_service.service.RoleService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,8 +24,13 @@ public class RoleController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Role>> getAllRoles() {
-        return ResponseEntity.ok(roleService.getAllRoles());
+    public ResponseEntity<List<Role>> getAllRoles(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.<List<Role>>notModified(ifNoneMatch, roleService.cachedRolesTag())
+                .orElseGet(() -> {
+                    List<Role> roles = roleService.getAllRoles();
+                    return ConditionalGet.ok(roleService.rolesTag(roles)).body(roles);
+                });
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,32 @@
+package org.payetonkawa.auth.auth_service.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.payetonkawa.auth.auth_service.model.RevokedToken;
+import org.payetonkawa.auth.auth_service.service.AuthService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.regex.Pattern;
+
+@RestController
+@RequestMapping("/api/auth/tokens")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class TokenController {
+
+    // Caractères d'un UUID ou d'un identifiant URL-safe, dans la limite de la colonne revoked_tokens.jti
+    private static final Pattern JTI = Pattern.compile("[A-Za-z0-9._-]{1," + RevokedToken.MAX_JTI_LENGTH + "}");
+
+    private final AuthService authService;
+
+    // Révocation administrative d'un jeton (accès ou rafraîchissement) par son jti
+    @DeleteMapping("/{jti}")
+    public ResponseEntity<Void> revoke(@PathVariable String jti) {
+        if (!JTI.matcher(jti).matches()) {
+            return ResponseEntity.badRequest().build();
+        }
+        authService.revokeTokenId(jti);
+        return ResponseEntity.noContent().build();
+    }
+}
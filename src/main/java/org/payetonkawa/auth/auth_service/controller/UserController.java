@@ -3,13 +3,25 @@ package org.payetonkawa.auth.auth_service.controller;
 import lombok.RequiredArgsConstructor;
 import org.payetonkawa.auth.auth_service.dto.RoleResponse;
 import org.payetonkawa.auth.auth_service.dto.UpdateUserRequest;
+import org.payetonkawa.auth.auth_service.dto.UserFilter;
+import org.payetonkawa.auth.auth_service.dto.UserImportReport;
+import org.payetonkawa.auth.auth_service.dto.UserPage;
 import org.payetonkawa.auth.auth_service.dto.UserResponse;
 import org.payetonkawa.auth.auth_service.model.User;
+import org.payetonkawa.auth.auth_service.service.UserExportService;
+import org.payetonkawa.auth.auth_service.service.UserFileFormat;
+import org.payetonkawa.auth.auth_service.service.UserImportService;
 import org.payetonkawa.auth.auth_service.service.UserService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -20,42 +32,79 @@ import java.util.stream.Collectors;
 @PreAuthorize("hasRole('ADMIN')")
 public class UserController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String TOTAL_ESTIMATE_HEADER = "X-Total-Estimate";
+
     private final UserService service;
+    private final UserImportService importService;
+    private final UserExportService exportService;
 
+    // Filtres en paramètres de requête (email, name, status, role, createdFrom/To, lastLoginFrom/To)
     @GetMapping
-    public ResponseEntity<List<UserResponse>> getUsers() {
-        List<User> users = service.findAll();
-
-        List<UserResponse> userResponses = users.stream().map(user -> {
-            Set<RoleResponse> roleResponses = user.getRoles().stream()
-                    .map(role -> new RoleResponse(role.getId(), role.getName()))
-                    .collect(Collectors.toSet());
-
-            return new UserResponse(
-                    user.getId(),
-                    user.getEmail(),
-                    user.getFirstName(),
-                    user.getLastName(),
-                    user.getStatus().name(),
-                    user.getCreatedAt(),
-                    user.getLastLogin(),
-                    roleResponses
-            );
-        }).toList();
-
-        return ResponseEntity.ok(userResponses);
+    public ResponseEntity<List<UserResponse>> getUsers(
+            @ModelAttribute UserFilter filter,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        UserPage page = service.findPage(filter, size, after, sort, direction, includeTotal);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        if (page.totalEstimate() != null) {
+            response.header(TOTAL_ESTIMATE_HEADER, String.valueOf(page.totalEstimate()));
+        }
+        return response.body(page.items());
+    }
+
+
+    // Corps lu en flux : le fichier n'est jamais chargé en entier, la réponse liste les lignes rejetées
+    @PostMapping(value = "/import", consumes = {UserFileFormat.CSV_VALUE, UserFileFormat.NDJSON_VALUE})
+    public ResponseEntity<UserImportReport> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                        InputStream body) throws IOException {
+        boolean csv = MediaType.parseMediaType(contentType)
+                .isCompatibleWith(MediaType.parseMediaType(UserFileFormat.CSV_VALUE));
+        UserFileFormat format = csv
+                ? UserFileFormat.CSV
+                : UserFileFormat.NDJSON;
+        return ResponseEntity.ok(importService.importUsers(body, format));
     }
 
+    // Écrit au fil de la lecture du curseur : les premiers octets partent avant la fin de la requête SQL
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        UserFileFormat fileFormat = UserFileFormat.fromExtension(format);
+        StreamingResponseBody body = output -> exportService.export(output, fileFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fileFormat.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users." + fileFormat.extension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
 
+
+    // ETag connu d'une lecture précédente : un If-None-Match correspondant répond 304 sans relire l'utilisateur
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponse> getById(@PathVariable Long id) {
+    public ResponseEntity<UserResponse> getById(
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.<UserResponse>notModified(ifNoneMatch, service.cachedTag(id))
+                .orElseGet(() -> load(id));
+    }
+
+    private ResponseEntity<UserResponse> load(Long id) {
         return service.findById(id)
                 .map(user -> {
                     Set<RoleResponse> roles = user.getRoles().stream()
                             .map(r -> new RoleResponse(r.getId(), r.getName()))
                             .collect(Collectors.toSet());
 
-                    return ResponseEntity.ok(new UserResponse(
+                    return ConditionalGet.ok(service.entityTag(user)).body(new UserResponse(
                             user.getId(),
                             user.getEmail(),
                             user.getFirstName(),
@@ -77,6 +126,11 @@ public class UserController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         return service.delete(id)
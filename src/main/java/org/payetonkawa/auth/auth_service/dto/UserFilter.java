@@ -0,0 +1,30 @@
+package org.payetonkawa.auth.auth_service.dto;
+
+import org.payetonkawa.auth.auth_service.model.Status;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Filtres du listing admin ({@code GET /api/auth/users}), tous facultatifs et combinés par ET.
+ * Bornes de période : {@code *From} incluse, {@code *To} exclue.
+ */
+public record UserFilter(
+        String email,              // préfixe de l'e-mail, sensible à la casse
+        String name,               // préfixe de « nom prénom », sans casse ni accents
+        Status status,
+        String role,               // nom du rôle, sans casse
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime lastLoginFrom,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime lastLoginTo
+) {
+
+    public static final UserFilter NONE = new UserFilter(null, null, null, null, null, null, null, null);
+
+    public boolean isEmpty() {
+        return Stream.of(email, name, status, role, createdFrom, createdTo, lastLoginFrom, lastLoginTo)
+                .allMatch(value -> value == null || value instanceof String s && s.isBlank());
+    }
+}
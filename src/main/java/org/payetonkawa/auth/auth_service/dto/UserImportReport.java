@@ -0,0 +1,14 @@
+package org.payetonkawa.auth.auth_service.dto;
+
+import java.util.List;
+
+public record UserImportReport(
+        long imported,
+        long failed,
+        List<RowError> errors,      // borné par auth.import.max-errors
+        boolean errorsTruncated
+) {
+
+    public record RowError(long line, String email, String message) {
+    }
+}
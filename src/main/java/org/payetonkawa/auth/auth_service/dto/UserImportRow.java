@@ -0,0 +1,13 @@
+package org.payetonkawa.auth.auth_service.dto;
+
+import java.util.List;
+
+// Une ligne d'import (CSV ou NDJSON) ; rôles vides = rôle USER, statut vide = ACTIVE
+public record UserImportRow(
+        String email,
+        String password,
+        String firstName,
+        String lastName,
+        List<String> roles,
+        String status) {
+}
@@ -0,0 +1,9 @@
+package org.payetonkawa.auth.auth_service.dto;
+
+import java.util.List;
+
+public record UserPage(
+        List<UserResponse> items,
+        String nextCursor,        // null sur la dernière page
+        Long totalEstimate        // null si non demandé
+) {}
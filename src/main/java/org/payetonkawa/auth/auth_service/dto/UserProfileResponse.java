@@ -1,5 +1,7 @@
 package org.payetonkawa.auth.auth_service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -11,5 +13,6 @@ public record UserProfileResponse(
         String status,             // "ACTIVE" ou "INACTIVE"
         LocalDateTime createdAt,
         LocalDateTime lastLogin,
-        List<String> roles
+        List<String> roles,
+        @JsonIgnore Long version   // version de l'utilisateur : sert à l'ETag, absente du corps
 ) {}
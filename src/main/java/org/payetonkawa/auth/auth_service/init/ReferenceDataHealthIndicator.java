@@ -0,0 +1,29 @@
+package org.payetonkawa.auth.auth_service.init;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code OUT_OF_SERVICE} tant que les rôles par défaut ne sont pas créés : inclus dans le groupe {@code readiness}
+ * ({@code management.endpoint.health.group.readiness.include}), l'instance ne reçoit pas de trafic avant.
+ * <p>
+ * Spring Boot passe l'état de disponibilité à {@code ACCEPTING_TRAFFIC} juste après {@code ApplicationReadyEvent} :
+ * un indicateur de santé, consulté à chaque sonde, ne peut pas être écrasé par cette transition.
+ */
+@Component
+public class ReferenceDataHealthIndicator implements HealthIndicator {
+
+    private final ReferenceDataInitializer initializer;
+
+    public ReferenceDataHealthIndicator(ReferenceDataInitializer initializer) {
+        this.initializer = initializer;
+    }
+
+    @Override
+    public Health health() {
+        return initializer.isDone()
+                ? Health.up().build()
+                : Health.outOfService().withDetail("reason", "reference data not created yet").build();
+    }
+}
@@ -0,0 +1,192 @@
+package org.payetonkawa.auth.auth_service.init;
+
+import org.payetonkawa.auth.auth_service.config.StartupReport;
+import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.model.Status;
+import org.payetonkawa.auth.auth_service.model.User;
+import org.payetonkawa.auth.auth_service.repository.RoleRepository;
+import org.payetonkawa.auth.auth_service.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Données de référence : rôles {@code USER} et {@code ADMIN}, puis compte admin si {@code admin.email} est renseigné.
+ * <p>
+ * Rien n'est fait pendant la création du contexte : l'initialisation démarre une fois l'application lancée,
+ * par défaut sur un thread dédié ({@code auth.bootstrap.async}), et tient en une transaction de deux lectures
+ * au plus quand tout existe déjà. Elle est idempotente : si une autre instance crée les mêmes lignes en même
+ * temps, la contrainte d'unicité fait échouer la transaction, qui est rejouée une fois et ne trouve plus rien à créer.
+ * <p>
+ * Tant qu'elle n'a pas abouti, l'instance n'est pas prête ({@link ReferenceDataHealthIndicator}, groupe
+ * {@code readiness}) : sans le rôle {@code USER}, une inscription échouerait. Un échec est retenté toutes les
+ * {@code auth.bootstrap.retry-interval}.
+ */
+@Component
+public class ReferenceDataInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataInitializer.class);
+
+    static final List<String> DEFAULT_ROLES = List.of("USER", "ADMIN");
+
+    private final RoleRepository roleRepo;
+    private final UserRepository userRepo;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final StartupReport startupReport;
+    private final String adminEmail;
+    private final String adminPassword;
+    private final boolean async;
+    private final Duration retryInterval;
+
+    private volatile boolean done;
+
+    public ReferenceDataInitializer(RoleRepository roleRepo,
+                                    UserRepository userRepo,
+                                    PasswordEncoder passwordEncoder,
+                                    TransactionTemplate transactionTemplate,
+                                    StartupReport startupReport,
+                                    @Value("${admin.email:}") String adminEmail,
+                                    @Value("${admin.password:}") String adminPassword,
+                                    @Value("${auth.bootstrap.async:true}") boolean async,
+                                    @Value("${auth.bootstrap.retry-interval:PT5S}") Duration retryInterval) {
+        this.roleRepo = roleRepo;
+        this.userRepo = userRepo;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = transactionTemplate;
+        this.startupReport = startupReport;
+        this.adminEmail = adminEmail;
+        this.adminPassword = adminPassword;
+        this.async = async;
+        this.retryInterval = retryInterval;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStarted() {
+        // Mode synchrone : premier essai pendant le démarrage, les suivants en arrière-plan
+        if (async || !run()) {
+            Thread.ofPlatform().name("reference-data-init").daemon().start(this::runUntilDone);
+        }
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    void runUntilDone() {
+        while (!run()) {
+            try {
+                Thread.sleep(retryInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Un essai ; renvoie {@code true} si les données de référence existent à son issue.
+     */
+    public boolean run() {
+        long start = System.nanoTime();
+        try {
+            String generatedPassword;
+            try {
+                generatedPassword = transactionTemplate.execute(status -> upsert());
+            } catch (DataIntegrityViolationException e) {
+                logger.info("Reference data created concurrently by another instance, retrying");
+                generatedPassword = transactionTemplate.execute(status -> upsert());
+            }
+            if (generatedPassword != null) {
+                logger.warn("🔐 Mot de passe temporaire généré pour l'admin : {}", generatedPassword);
+                logger.info("⚠️ Pensez à changer le mot de passe après la première connexion.");
+            }
+            done = true;
+            return true;
+        } catch (Exception e) {
+            logger.error("❌ Erreur lors de l'initialisation des données de référence, nouvel essai dans {} : {}",
+                    retryInterval, e.getMessage(), e);
+            return false;
+        } finally {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            startupReport.record("bootstrap", elapsed);
+            logger.info("Reference data checked in {} ms", elapsed.toMillis());
+        }
+    }
+
+    /**
+     * Crée ce qui manque ; renvoie le mot de passe admin généré, ou {@code null} s'il n'y en a pas eu.
+     */
+    String upsert() {
+        Map<String, Role> roles = new HashMap<>();
+        for (Role role : roleRepo.findByNameIn(DEFAULT_ROLES)) {
+            roles.put(role.getName(), role);
+        }
+        List<Role> missing = new ArrayList<>();
+        for (String name : DEFAULT_ROLES) {
+            if (!roles.containsKey(name)) {
+                Role role = new Role(name);
+                missing.add(role);
+                roles.put(name, role);
+            }
+        }
+        if (!missing.isEmpty()) {
+            roleRepo.saveAll(missing);
+            logger.info("🆕 Rôles créés : {}", missing.stream().map(Role::getName).toList());
+        }
+
+        if (adminEmail.isBlank()) {
+            logger.warn("❌ Admin creation skipped: admin.email is missing.");
+            return null;
+        }
+        if (userRepo.findByEmail(adminEmail).isPresent()) {
+            logger.info("ℹ️ L'utilisateur admin existe déjà : {}", adminEmail);
+            return null;
+        }
+
+        // Génération du mot de passe temporaire si non fourni
+        boolean isTempPassword = adminPassword == null || adminPassword.isBlank();
+        String password = isTempPassword ? generateRandomPassword(12) : adminPassword;
+
+        User admin = new User();
+        admin.setEmail(adminEmail);
+        admin.setPassword(passwordEncoder.encode(password));
+        admin.setFirstName("Admin");
+        admin.setLastName("Account");
+        admin.getRoles().add(roles.get("ADMIN"));
+        admin.setStatus(Status.ACTIVE);
+        admin.setCreatedAt(LocalDateTime.now());
+        admin.setLastLogin(LocalDateTime.now());
+        userRepo.save(admin);
+
+        logger.info("✅ Admin user created with email: {}", adminEmail);
+        return isTempPassword ? password : null;
+    }
+
+    private String generateRandomPassword(int length) {
+        final String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*()_+";
+        SecureRandom random = new SecureRandom();
+        StringBuilder password = new StringBuilder();
+
+        for (int i = 0; i < length; i++) {
+            int index = random.nextInt(chars.length());
+            password.append(chars.charAt(index));
+        }
+
+        return password.toString();
+    }
+}
@@ -0,0 +1,36 @@
+package org.payetonkawa.auth.auth_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Jeton révoqué avant son expiration, identifié par son {@code jti}.
+ * La ligne n'a plus d'utilité après {@code expiresAt} et est alors purgée.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+public class RevokedToken {
+
+    /** Longueur de la colonne {@code jti} ; les jetons émis portent un UUID (36 caractères). */
+    public static final int MAX_JTI_LENGTH = 64;
+
+    @Id
+    @Column(length = MAX_JTI_LENGTH)
+    private String jti;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private Instant revokedAt;
+}
@@ -3,19 +3,27 @@ package org.payetonkawa.auth.auth_service.model;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 @Data
 @NoArgsConstructor
 @Entity
 public class Role {
 
+    // Séquence sans réserve de blocs : les identifiants restent denses (bits du masque de RoleCodebook)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "role_seq")
+    @SequenceGenerator(name = "role_seq", sequenceName = "role_seq", allocationSize = 1)
     private Long id;
 
     @Column(unique = true, nullable = false)
     private String name;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public Role(String name) {
         this.name = name;
     }
@@ -0,0 +1,35 @@
+package org.payetonkawa.auth.auth_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Clé publique de signature générée par la rotation d'une instance (X.509, Base64), partagée avec les autres
+ * instances pour qu'elles vérifient ses jetons. La clé privée n'est jamais écrite.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "signing_keys", indexes = {
+        @Index(name = "idx_signing_keys_published_at", columnList = "published_at")
+})
+public class SharedSigningKey {
+
+    @Id
+    @Column(length = 64)
+    private String kid;
+
+    @Column(nullable = false, length = 10)
+    private String algorithm;
+
+    @Column(nullable = false, length = 1024)
+    private String publicKey;
+
+    @Column(nullable = false)
+    private Instant publishedAt;
+}
@@ -1,26 +1,63 @@
 package org.payetonkawa.auth.auth_service.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
-import lombok.Data;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
+import java.text.Normalizer;
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
+import java.util.regex.Pattern;
 
+// Pas de @Data : equals/hashCode/toString générés parcourraient la collection paresseuse des rôles
 @Entity
-@Data
-@Table(name = "users")
+@Getter
+@Setter
+@ToString
+@Table(name = "users", indexes = {
+        // Tri keyset du listing admin : (created_at, id)
+        @Index(name = "idx_users_created_at_id", columnList = "created_at, id"),
+        // Filtres du listing admin : préfixe de nom, statut et période de création, période de dernière connexion
+        @Index(name = "idx_users_name_key_id", columnList = "name_key, id"),
+        @Index(name = "idx_users_status_created_at_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_users_last_login_id", columnList = "last_login, id")
+})
 public class User {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    // Séquence allouée par blocs : pas d'aller-retour par INSERT, les insertions peuvent être batchées
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
+    // Verrou optimiste et ETag : incrémentée à chaque modification JPA, changement de rôles compris
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @Column(nullable = false, unique = true)
     private String email;
 
     private String firstName;
     private String lastName;
 
+    // Clé de recherche par nom : « nom prénom » sans casse ni accents, tenue à jour par les setters
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private String nameKey;
+
+    @ToString.Exclude
     @Column(nullable = false)
     private String password;
 
@@ -28,20 +65,66 @@ public class User {
     @Column(nullable = false)
     private Status status = Status.ACTIVE;
 
+    // Non nul : clé du tri keyset (created_at, id), une valeur NULL sortirait du curseur
     @CreationTimestamp
-    @Column(updatable = false)
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
 
-    @Column
+    // Mis à jour uniquement par LastLoginRecorder (UPDATE batché), jamais par un merge JPA
+    @Column(updatable = false)
     private LocalDateTime lastLogin;
 
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    // Chargement explicite : graphe d'entité sur UserRepository, sinon par lots
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
-            inverseJoinColumns = @JoinColumn(name = "role_id")
+            inverseJoinColumns = @JoinColumn(name = "role_id"),
+            // La clé primaire (role_id, user_id) sert le filtre par rôle ; les rôles d'une page d'utilisateurs
+            // (findRoleRows, graphe d'entité) se lisent à partir de user_id
+            indexes = @Index(name = "idx_user_roles_user_id_role_id", columnList = "user_id, role_id")
     )
+    @ToString.Exclude
     private Set<Role> roles = new HashSet<>();
+
+    // Identité d'entité : égaux si même identifiant ; une entité non enregistrée n'est égale qu'à elle-même
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof User other && id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return User.class.hashCode();
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+        this.nameKey = nameKey(lastName, firstName);
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+        this.nameKey = nameKey(lastName, firstName);
+    }
+
+    public static String nameKey(String lastName, String firstName) {
+        String key = searchKey((lastName == null ? "" : lastName) + " " + (firstName == null ? "" : firstName));
+        return key.isEmpty() ? null : key;
+    }
+
+    /** Forme normalisée d'un nom ou d'un préfixe de recherche : minuscules, sans accents, espaces réduits. */
+    public static String searchKey(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .trim()
+                .replaceAll("\\s+", " ");
+    }
 }
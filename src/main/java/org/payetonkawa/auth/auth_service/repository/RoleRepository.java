@@ -2,9 +2,13 @@ package org.payetonkawa.auth.auth_service.repository;
 import org.payetonkawa.auth.auth_service.model.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
     Optional<Role> findByName(String name);
 
+    List<Role> findByNameIn(Collection<String> names);
+
 }
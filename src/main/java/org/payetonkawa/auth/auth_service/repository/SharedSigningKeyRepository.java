@@ -0,0 +1,27 @@
+package org.payetonkawa.auth.auth_service.repository;
+
+import org.payetonkawa.auth.auth_service.model.SharedSigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+// Lectures en transaction d'écriture, donc sur le primaire : le retard d'un réplica retarderait le partage des clés
+public interface SharedSigningKeyRepository extends JpaRepository<SharedSigningKey, String> {
+
+    @Transactional
+    List<SharedSigningKey> findByPublishedAtAfter(Instant since);
+
+    @Override
+    @Transactional
+    boolean existsById(String kid);
+
+    @Transactional
+    @Modifying
+    @Query("delete from SharedSigningKey k where k.publishedAt <= :before")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
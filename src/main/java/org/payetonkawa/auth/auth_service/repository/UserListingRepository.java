@@ -0,0 +1,62 @@
+package org.payetonkawa.auth.auth_service.repository;
+
+import org.payetonkawa.auth.auth_service.dto.UserFilter;
+import org.payetonkawa.auth.auth_service.model.Status;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Listing paginé des utilisateurs par clé (keyset) : projections DTO, aucune entité gérée n'est créée.
+ * Chaque filtre de {@link UserFilter} correspond à un index : préfixes en {@code LIKE 'x%'}, périodes en bornes,
+ * rôle par jointure sur {@code user_roles(role_id, user_id)}.
+ */
+public interface UserListingRepository {
+
+    /** Colonnes de tri autorisées (indexées). L'identifiant sert de départage. */
+    enum SortKey {
+        ID("id"),
+        EMAIL("email"),
+        CREATED_AT("createdAt");
+
+        private final String attribute;
+
+        SortKey(String attribute) {
+            this.attribute = attribute;
+        }
+
+        public String attribute() {
+            return attribute;
+        }
+    }
+
+    record UserRow(Long id, String email, String firstName, String lastName, Status status,
+                   LocalDateTime createdAt, LocalDateTime lastLogin) {
+    }
+
+    record UserRoleRow(Long userId, Long roleId, String roleName) {
+    }
+
+    /** Ligne d'export : un utilisateur par rôle (jointure externe), triée par identifiant. */
+    record UserExportRow(Long id, String email, String firstName, String lastName, Status status,
+                         LocalDateTime createdAt, LocalDateTime lastLogin, String roleName) {
+    }
+
+    /** Position après laquelle reprendre : valeur de la colonne de tri et identifiant de la dernière ligne. */
+    record Keyset(Comparable<?> value, Long id) {
+    }
+
+    List<UserRow> findUserRows(UserFilter filter, SortKey sort, boolean ascending, Keyset after, int limit);
+
+    List<UserRoleRow> findRoleRows(Collection<Long> userIds);
+
+    long estimateUserCount();
+
+    /** Décompte exact des utilisateurs qui passent le filtre (mêmes index que le listing). */
+    long countUsers(UserFilter filter);
+
+    /** Curseur en lecture seule sur toute la table ; à consommer dans une transaction puis à fermer. */
+    Stream<UserExportRow> streamExportRows(int fetchSize);
+}
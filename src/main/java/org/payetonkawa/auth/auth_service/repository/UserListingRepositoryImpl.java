@@ -0,0 +1,178 @@
+package org.payetonkawa.auth.auth_service.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.payetonkawa.auth.auth_service.dto.UserFilter;
+import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+class UserListingRepositoryImpl implements UserListingRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<UserRow> findUserRows(UserFilter filter, SortKey sort, boolean ascending, Keyset after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserRow> query = cb.createQuery(UserRow.class);
+        Root<User> user = query.from(User.class);
+        List<Predicate> where = filterPredicates(cb, user, filter);
+
+        query.select(cb.construct(UserRow.class,
+                user.get("id"), user.get("email"), user.get("firstName"), user.get("lastName"),
+                user.get("status"), user.get("createdAt"), user.get("lastLogin")));
+
+        Expression<Long> id = user.get("id");
+        Expression<Comparable> key = user.get(sort.attribute());
+
+        if (after != null) {
+            Comparable value = after.value();
+            // (clé, id) strictement après le curseur, dans le sens du tri
+            Predicate next = sort == SortKey.ID
+                    ? (ascending ? cb.greaterThan(id, after.id()) : cb.lessThan(id, after.id()))
+                    : cb.or(
+                            ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value),
+                            cb.and(cb.equal(key, value),
+                                    ascending ? cb.greaterThan(id, after.id()) : cb.lessThan(id, after.id())));
+            where.add(next);
+        }
+        query.where(where.toArray(Predicate[]::new));
+
+        if (sort == SortKey.ID) {
+            query.orderBy(ascending ? cb.asc(id) : cb.desc(id));
+        } else {
+            query.orderBy(ascending ? cb.asc(key) : cb.desc(key), ascending ? cb.asc(id) : cb.desc(id));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long countUsers(UserFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<User> user = query.from(User.class);
+        query.select(cb.count(user)).where(filterPredicates(cb, user, filter).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // Un rôle par utilisateur au plus dans la jointure (nom unique) : pas de doublon, pas de DISTINCT
+    private static List<Predicate> filterPredicates(CriteriaBuilder cb, Root<User> user, UserFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter == null) {
+            return predicates;
+        }
+        if (hasText(filter.email())) {
+            predicates.add(cb.like(user.get("email"), prefixPattern(filter.email().trim()), LIKE_ESCAPE));
+        }
+        if (hasText(filter.name())) {
+            predicates.add(cb.like(user.get("nameKey"), prefixPattern(User.searchKey(filter.name())), LIKE_ESCAPE));
+        }
+        if (filter.status() != null) {
+            predicates.add(cb.equal(user.get("status"), filter.status()));
+        }
+        if (hasText(filter.role())) {
+            Join<User, Role> role = user.join("roles");
+            predicates.add(cb.equal(role.get("name"), filter.role().trim().toUpperCase(Locale.ROOT)));
+        }
+        addRange(cb, predicates, user.get("createdAt"), filter.createdFrom(), filter.createdTo());
+        addRange(cb, predicates, user.get("lastLogin"), filter.lastLoginFrom(), filter.lastLoginTo());
+        return predicates;
+    }
+
+    private static void addRange(CriteriaBuilder cb, List<Predicate> predicates, Expression<LocalDateTime> column,
+                                 LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(column, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(column, to));
+        }
+    }
+
+    // Préfixe seul (pas de joker en tête) : la condition reste une plage sur l'index
+    private static String prefixPattern(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    @Override
+    public List<UserRoleRow> findRoleRows(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserRoleRow> query = cb.createQuery(UserRoleRow.class);
+        Root<User> user = query.from(User.class);
+        Join<User, Role> role = user.join("roles");
+
+        query.select(cb.construct(UserRoleRow.class, user.get("id"), role.get("id"), role.get("name")))
+                .where(user.get("id").in(userIds));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public long estimateUserCount() {
+        // Sous PostgreSQL, estimation issue des statistiques du planificateur (pas de parcours de table)
+        if (isPostgres()) {
+            Number estimate = (Number) entityManager
+                    .createNativeQuery("select reltuples from pg_class where relname = 'users'")
+                    .getSingleResult();
+            if (estimate != null && estimate.longValue() >= 0) {
+                return estimate.longValue();
+            }
+        }
+        return entityManager.createQuery("select count(u) from User u", Long.class).getSingleResult();
+    }
+
+    @Override
+    public Stream<UserExportRow> streamExportRows(int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserExportRow> query = cb.createQuery(UserExportRow.class);
+        Root<User> user = query.from(User.class);
+        Join<User, Role> role = user.join("roles", JoinType.LEFT);
+
+        query.select(cb.construct(UserExportRow.class,
+                        user.get("id"), user.get("email"), user.get("firstName"), user.get("lastName"),
+                        user.get("status"), user.get("createdAt"), user.get("lastLogin"), role.get("name")))
+                .orderBy(cb.asc(user.get("id")));
+
+        // Projection : rien n'entre dans le contexte de persistance, la mémoire reste constante
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private boolean isPostgres() {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+    }
+}
@@ -1,11 +1,44 @@
 package org.payetonkawa.auth.auth_service.repository;
 
 import org.payetonkawa.auth.auth_service.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserListingRepository {
+    // Les chemins qui ont besoin des rôles les chargent par jointure, en une seule requête
+    @EntityGraph(attributePaths = "roles")
+    @Transactional(readOnly = true)
     Optional<User> findByEmail(String email);
+
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findById(Long id);
+
     boolean existsByRoles_Name(String roleName);
+
+    // Import en masse : une requête par lot pour écarter les e-mails déjà pris
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Renommer un rôle change la représentation de chaque utilisateur qui le porte, donc sa version (ETag)
+    @Transactional
+    @Modifying
+    @Query("update User u set u.version = u.version + 1"
+            + " where u.id in (select holder.id from User holder join holder.roles r where r.id = :roleId)")
+    int incrementVersionForRole(@Param("roleId") Long roleId);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :currentHash")
+    int updatePasswordIfUnchanged(@Param("id") Long id,
+                                  @Param("currentHash") String currentHash,
+                                  @Param("newHash") String newHash);
 }
@@ -0,0 +1,43 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Choisit le coût BCrypt donnant un hachage proche d'une latence cible sur la machine courante.
+ * Chaque incrément de coût double le temps de calcul ; le coût n'est jamais inférieur à la valeur par défaut (10).
+ */
+public final class BCryptCostCalibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+
+    static final int MIN_COST = 10;
+    static final int MAX_COST = 16;
+    private static final String SAMPLE = "calibration-sample-password";
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int calibrate(Duration targetLatency) {
+        BCryptPasswordEncoder reference = new BCryptPasswordEncoder(MIN_COST);
+        reference.encode(SAMPLE); // chauffe
+
+        long start = System.nanoTime();
+        reference.encode(SAMPLE);
+        Duration measured = Duration.ofNanos(System.nanoTime() - start);
+
+        int cost = costFor(targetLatency, measured);
+        logger.info("BCrypt cost calibrated to {} (cost {} took {} ms, target {} ms)",
+                cost, MIN_COST, measured.toMillis(), targetLatency.toMillis());
+        return cost;
+    }
+
+    static int costFor(Duration targetLatency, Duration measuredAtMinCost) {
+        double ratio = (double) targetLatency.toNanos() / Math.max(1, measuredAtMinCost.toNanos());
+        int cost = MIN_COST + (int) Math.round(Math.log(ratio) / Math.log(2));
+        return Math.max(MIN_COST, Math.min(MAX_COST, cost));
+    }
+}
@@ -1,26 +1,30 @@
 package org.payetonkawa.auth.auth_service.security;
 
-import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.WebUtils;
 
 import java.io.IOException;
-import java.util.List;
 
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final VerifiedTokenCache tokenCache;
+    private final TokenDenylist denylist;
+    private final RoleCodebook roleCodebook;
 
-    public JwtAuthFilter(JwtService jwtService) {
+    public JwtAuthFilter(JwtService jwtService, VerifiedTokenCache tokenCache, TokenDenylist denylist,
+                         RoleCodebook roleCodebook) {
         this.jwtService = jwtService;
+        this.tokenCache = tokenCache;
+        this.denylist = denylist;
+        this.roleCodebook = roleCodebook;
     }
 
     @Override
@@ -32,18 +36,31 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         Cookie cookie = WebUtils.getCookie(request, "access_token");
         if (cookie != null) {
             String token = cookie.getValue();
-            if (jwtService.validateToken(token)) {
+            VerifiedTokenCache.VerifiedAuthentication verified = tokenCache.get(token);
 
-                Claims claims = jwtService.getAllClaimsFromToken(token);
-
-                String email = claims.getSubject();
-                List<String> roles = claims.get("roles", List.class);
+            if (verified == null) {
+                // Jeton inconnu du cache : vérification complète de la signature
+                VerifiedToken result = jwtService.verify(token);
+                if (result.isValid()) {
+                    // Autorités partagées par combinaison de rôles : aucune allocation par requête
+                    verified = new VerifiedTokenCache.VerifiedAuthentication(result,
+                            roleCodebook.forNames(result.roles()).authorities());
+                    tokenCache.put(token, verified);
+                } else {
+                    request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, result);
+                }
+            }
 
-                List<SimpleGrantedAuthority> authorities = roles.stream()
-                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                        .toList();
+            // Contrôle en mémoire à chaque requête, y compris pour un jeton déjà en cache
+            if (verified != null && denylist.isRevoked(verified.token().tokenId())) {
+                request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, VerifiedToken.failed(VerifiedToken.Failure.REVOKED));
+                verified = null;
+            }
 
-                var auth = new UsernamePasswordAuthenticationToken(email, null, authorities);
+            if (verified != null) {
+                // Les contrôleurs réutilisent ce résultat au lieu de re-parser le jeton
+                request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verified.token());
+                var auth = new UsernamePasswordAuthenticationToken(verified.token().subject(), null, verified.authorities());
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
         }
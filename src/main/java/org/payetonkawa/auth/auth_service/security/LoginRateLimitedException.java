@@ -0,0 +1,21 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import java.time.Duration;
+
+/**
+ * Levée lorsqu'une tentative de connexion dépasse la limite de débit de son adresse IP ou de son compte :
+ * la requête est rejetée avant toute lecture en base et tout calcul BCrypt.
+ */
+public class LoginRateLimitedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public LoginRateLimitedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,119 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitation de débit des tentatives de connexion, par adresse IP et par compte (e-mail).
+ * Chaque clé a un seau à jetons de {@code capacity} jetons rechargé en {@code period}, implémenté
+ * en GCRA : un seul {@link AtomicLong} par clé, mis à jour par CAS, sans verrou.
+ * Les clés sont gardées dans un cache borné ; un seau inactif depuis une période entière est plein
+ * et peut être évincé sans perte d'information.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+    private final Limit ipLimit;
+    private final Limit accountLimit;
+
+    public LoginRateLimiter(@Value("${auth.login.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${auth.login.rate-limit.ip.capacity:30}") int ipCapacity,
+                            @Value("${auth.login.rate-limit.ip.period:PT1M}") Duration ipPeriod,
+                            @Value("${auth.login.rate-limit.account.capacity:10}") int accountCapacity,
+                            @Value("${auth.login.rate-limit.account.period:PT5M}") Duration accountPeriod,
+                            @Value("${auth.login.rate-limit.max-keys:100000}") long maxKeys,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ipLimit = new Limit("ip", ipCapacity, ipPeriod, maxKeys, meterRegistry);
+        this.accountLimit = new Limit("account", accountCapacity, accountPeriod, maxKeys, meterRegistry);
+    }
+
+    /**
+     * Consomme un jeton pour l'IP puis pour le compte ; lève {@link LoginRateLimitedException} si l'un est épuisé.
+     * Une IP déjà limitée ne consomme pas de jeton sur le compte visé.
+     */
+    public void check(String clientIp, String email) {
+        check(clientIp, email, System.nanoTime());
+    }
+
+    void check(String clientIp, String email, long now) {
+        if (!enabled) {
+            return;
+        }
+        ipLimit.acquire(clientIp, now);
+        if (email != null) {
+            accountLimit.acquire(email.trim().toLowerCase(Locale.ROOT), now);
+        }
+    }
+
+    private static final class Limit {
+
+        private final String name;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final Cache<String, Bucket> buckets;
+        private final Counter rejected;
+
+        Limit(String name, int capacity, Duration period, long maxKeys, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.intervalNanos = period.toNanos() / capacity;
+            this.toleranceNanos = intervalNanos * (capacity - 1);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(period)
+                    .build();
+            this.rejected = Counter.builder("auth.login.throttled")
+                    .tag("key", name)
+                    .register(meterRegistry);
+            Gauge.builder("auth.login.rate-limit.keys", buckets, Cache::estimatedSize)
+                    .tag("key", name)
+                    .register(meterRegistry);
+        }
+
+        void acquire(String key, long now) {
+            if (key == null) {
+                return;
+            }
+            long waitNanos = buckets.get(key, k -> new Bucket()).tryAcquire(now, intervalNanos, toleranceNanos);
+            if (waitNanos > 0) {
+                rejected.increment();
+                Duration retryAfter = Duration.ofSeconds(Math.max(1, (long) Math.ceil(waitNanos / 1e9)));
+                throw new LoginRateLimitedException("Too many login attempts for this " + name, retryAfter);
+            }
+        }
+    }
+
+    /**
+     * Seau GCRA : mémorise l'instant théorique d'arrivée (TAT) de la prochaine requête conforme.
+     * Une requête est acceptée si elle n'arrive pas plus de {@code tolerance} avant ce TAT.
+     */
+    static final class Bucket {
+
+        private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+        // 0 si accepté, sinon l'attente en nanosecondes avant le prochain jeton
+        long tryAcquire(long now, long interval, long tolerance) {
+            while (true) {
+                long current = theoreticalArrival.get();
+                long base = Math.max(current, now);
+                long wait = base - now - tolerance;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrival.compareAndSet(current, base + interval)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
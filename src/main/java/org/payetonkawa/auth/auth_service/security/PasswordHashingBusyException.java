@@ -0,0 +1,21 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import java.time.Duration;
+
+/**
+ * Levée lorsque le pool de hachage des mots de passe est saturé : la requête doit être rejetée
+ * immédiatement plutôt que mise en attente sans limite.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public PasswordHashingBusyException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,108 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.repository.RoleRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table de correspondance des rôles pour le format compact des jetons : le claim {@code rm} est un masque
+ * dont le bit {@code n} correspond au rôle d'identifiant {@code n}.
+ * <p>
+ * Chaque combinaison de rôles rencontrée (masque ou liste de noms) est convertie une seule fois en un
+ * {@link RoleSet} immuable partagé : la construction des autorités ne fait ensuite plus aucune allocation.
+ * La table est rechargée par {@link org.payetonkawa.auth.auth_service.service.RoleService} à chaque modification,
+ * périodiquement, et à la volée si un masque contient un identifiant inconnu (rôle créé par une autre instance)
+ * — y compris au premier décodage : rien n'est lu au démarrage.
+ */
+@Component
+public class RoleCodebook {
+
+    /** Identifiant de rôle maximal représentable dans le masque (bit de signe exclu). */
+    static final long MAX_ROLE_ID = 62;
+
+    public record RoleSet(List<String> names, List<GrantedAuthority> authorities) {
+    }
+
+    // Table et décodages qui en dérivent, remplacés d'un bloc : un décodage fait sur l'ancienne table
+    // ne s'écrit que dans l'ancien cache, jamais dans celui publié par refresh()
+    private record Table(Map<Long, String> namesById, long knownMask, Map<Long, RoleSet> byMask) {
+    }
+
+    private final RoleRepository roleRepository;
+
+    private volatile Table table = new Table(Map.of(), 0, new ConcurrentHashMap<>());
+    private final Map<List<String>, RoleSet> byNames = new ConcurrentHashMap<>();
+
+    public RoleCodebook(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.roles.cache.ttl:PT10M}", initialDelayString = "${auth.roles.cache.ttl:PT10M}")
+    public synchronized void refresh() {
+        Map<Long, String> names = new TreeMap<>();
+        long mask = 0;
+        for (Role role : roleRepository.findAll()) {
+            if (role.getId() != null && role.getId() >= 0 && role.getId() <= MAX_ROLE_ID) {
+                names.put(role.getId(), role.getName());
+                mask |= 1L << role.getId();
+            }
+        }
+        table = new Table(names, mask, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Masque des rôles, ou {@code -1} si l'un d'eux n'est pas représentable (le jeton garde alors la liste de noms).
+     */
+    public static long encode(Collection<Role> roles) {
+        long mask = 0;
+        for (Role role : roles) {
+            Long id = role.getId();
+            if (id == null || id < 0 || id > MAX_ROLE_ID) {
+                return -1;
+            }
+            mask |= 1L << id;
+        }
+        return mask;
+    }
+
+    public RoleSet decode(long mask) {
+        Table current = table;
+        RoleSet cached = current.byMask().get(mask);
+        if (cached != null) {
+            return cached;
+        }
+        if ((mask & ~current.knownMask()) != 0) {
+            refresh();
+            current = table;
+        }
+        List<String> decoded = new ArrayList<>();
+        for (Map.Entry<Long, String> entry : current.namesById().entrySet()) {
+            if ((mask & (1L << entry.getKey())) != 0) {
+                decoded.add(entry.getValue());
+            }
+        }
+        return current.byMask().computeIfAbsent(mask, m -> forNames(decoded));
+    }
+
+    public RoleSet forNames(List<String> names) {
+        RoleSet cached = byNames.get(names);
+        return cached != null ? cached : byNames.computeIfAbsent(List.copyOf(names), RoleCodebook::build);
+    }
+
+    private static RoleSet build(List<String> names) {
+        List<GrantedAuthority> authorities = names.stream()
+                .<GrantedAuthority>map(name -> new SimpleGrantedAuthority("ROLE_" + name))
+                .toList();
+        return new RoleSet(names, authorities);
+    }
+}
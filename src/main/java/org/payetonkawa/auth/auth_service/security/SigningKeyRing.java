@@ -0,0 +1,316 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trousseau des clés de signature JWT.
+ * Une seule clé est active pour signer ; les clés retirées restent valides pour la vérification
+ * pendant la durée de vie maximale d'un jeton, puis sont purgées. Chaque clé est identifiée par un {@code kid}.
+ * Le JWKS publié est pré-sérialisé à chaque changement de clé.
+ * <p>
+ * Une rotation publie d'abord la clé suivante dans le JWKS, sans signer avec elle : elle ne devient active
+ * qu'une fois écoulé au moins un {@code max-age} du JWKS, quand tous les consommateurs ont pu la récupérer.
+ * <p>
+ * Les clés générées par les autres instances ({@link #replacePeerKeys}, alimenté par
+ * {@link SigningKeyRotationScheduler}) servent à la vérification et sont publiées dans le JWKS, sans clé privée.
+ */
+@Component
+public class SigningKeyRing {
+
+    private static final Logger logger = LoggerFactory.getLogger(SigningKeyRing.class);
+
+    public record SigningKey(String kid, SignatureAlgorithm algorithm, PrivateKey privateKey,
+                             PublicKey publicKey, Instant retiredAt) {
+
+        SigningKey retire(Instant when) {
+            return new SigningKey(kid, algorithm, privateKey, publicKey, when);
+        }
+    }
+
+    public record JsonWebKeySet(byte[] body, String etag) {
+    }
+
+    private record State(SigningKey active, SigningKey next, Instant nextPublishedAt,
+                         Map<String, SigningKey> keys, Map<String, SigningKey> peers, JsonWebKeySet jwks) {
+    }
+
+    private final Resource privateKeyResource;
+    private final Resource publicKeyResource;
+    private final SignatureAlgorithm algorithm;
+    private final long retentionMs;
+    private final Duration publicationDelay;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile State state;
+
+    public SigningKeyRing(@Value("${auth.jwt.private-key}") Resource privateKeyResource,
+                          @Value("${auth.jwt.public-key}") Resource publicKeyResource,
+                          @Value("${auth.jwt.algorithm:RS256}") String algorithm,
+                          @Value("${auth.jwt.refreshExpirationMs}") long retentionMs,
+                          @Value("${auth.jwt.jwks.max-age:PT5M}") Duration publicationDelay) {
+        this.privateKeyResource = privateKeyResource;
+        this.publicKeyResource = publicKeyResource;
+        this.algorithm = SignatureAlgorithm.forName(algorithm);
+        this.retentionMs = retentionMs;
+        this.publicationDelay = publicationDelay;
+        if (this.algorithm != SignatureAlgorithm.RS256 && this.algorithm != SignatureAlgorithm.ES256) {
+            throw new IllegalStateException("Unsupported JWT signing algorithm: " + algorithm);
+        }
+    }
+
+    @PostConstruct
+    public void loadKeys() throws IOException, GeneralSecurityException {
+        // Lecture via InputStream (compatible avec un JAR)
+        byte[] privateBytes = decodePem(privateKeyResource, "PRIVATE KEY");
+        byte[] publicBytes = decodePem(publicKeyResource, "PUBLIC KEY");
+
+        KeyFactory kf = keyFactory();
+        install(kf.generatePrivate(new PKCS8EncodedKeySpec(privateBytes)),
+                kf.generatePublic(new X509EncodedKeySpec(publicBytes)));
+    }
+
+    /**
+     * Installe une paire de clés comme clé active ; l'ancienne clé active est conservée pour la vérification.
+     */
+    synchronized SigningKey install(PrivateKey privateKey, PublicKey publicKey) {
+        SigningKey next = state != null ? state.next() : null;
+        Instant nextPublishedAt = state != null ? state.nextPublishedAt() : null;
+        SigningKey key = new SigningKey(keyId(publicKey), algorithm, privateKey, publicKey, null);
+        Instant now = Instant.now();
+
+        Map<String, SigningKey> keys = new LinkedHashMap<>();
+        keys.put(key.kid(), key);
+        if (state != null) {
+            for (SigningKey existing : state.keys().values()) {
+                SigningKey kept = existing == state.active() ? existing.retire(now) : existing;
+                boolean expired = kept.retiredAt() != null
+                        && kept.retiredAt().plusMillis(retentionMs).isBefore(now);
+                if (!expired && !kept.kid().equals(key.kid())) {
+                    keys.put(kept.kid(), kept);
+                }
+            }
+        }
+
+        if (next != null && next.kid().equals(key.kid())) {
+            next = null;
+            nextPublishedAt = null;
+        }
+
+        state = newState(key, next, nextPublishedAt, keys, state != null ? state.peers() : Map.of());
+        logger.info("JWT signing key {} ({}) is now active, {} key(s) published", key.kid(), algorithm, keys.size());
+        return key;
+    }
+
+    /**
+     * Publie une paire de clés dans le JWKS comme clé suivante, sans l'utiliser pour signer.
+     */
+    synchronized SigningKey publishNext(PrivateKey privateKey, PublicKey publicKey) {
+        SigningKey key = new SigningKey(keyId(publicKey), algorithm, privateKey, publicKey, null);
+        Map<String, SigningKey> keys = new LinkedHashMap<>(state.keys());
+        keys.put(key.kid(), key);
+
+        state = newState(state.active(), key, Instant.now(), keys, state.peers());
+        logger.info("JWT signing key {} ({}) published, active once the JWKS max-age ({}) has elapsed",
+                key.kid(), algorithm, publicationDelay);
+        return key;
+    }
+
+    /**
+     * Étape de rotation : rend active la clé suivante si elle est publiée depuis au moins {@code max-age},
+     * puis publie une nouvelle clé suivante. Tant que la clé suivante est trop récente, rien ne change.
+     */
+    public synchronized SigningKey rotate() throws GeneralSecurityException {
+        State current = state;
+        if (current.next() != null) {
+            if (current.nextPublishedAt().plus(publicationDelay).isAfter(Instant.now())) {
+                return current.active();
+            }
+            install(current.next().privateKey(), current.next().publicKey());
+        }
+        KeyPair pair = generateKeyPair();
+        publishNext(pair.getPrivate(), pair.getPublic());
+        return state.active();
+    }
+
+    /**
+     * Remplace les clés publiques générées par les autres instances : vérification et JWKS uniquement.
+     */
+    public synchronized void replacePeerKeys(Collection<PublicKey> publicKeys) {
+        Map<String, SigningKey> peers = new LinkedHashMap<>();
+        for (PublicKey publicKey : publicKeys) {
+            String kid = keyId(publicKey);
+            if (!state.keys().containsKey(kid)) {
+                peers.put(kid, new SigningKey(kid, algorithm, null, publicKey, null));
+            }
+        }
+        if (peers.keySet().equals(state.peers().keySet())) {
+            return;
+        }
+        state = newState(state.active(), state.next(), state.nextPublishedAt(), state.keys(), peers);
+        logger.info("{} JWT signing key(s) of other instances loaded", peers.size());
+    }
+
+    public SignatureAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Clé publique encodée en X.509 (Base64), telle que partagée entre instances.
+     */
+    public PublicKey decodePublicKey(String encoded) throws GeneralSecurityException {
+        return keyFactory().generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(encoded)));
+    }
+
+    public SigningKey active() {
+        return state.active();
+    }
+
+    /**
+     * Clé publiée mais pas encore utilisée pour signer, ou {@code null}.
+     */
+    public SigningKey next() {
+        return state.next();
+    }
+
+    /**
+     * Clé de vérification pour un {@code kid} donné ; les jetons sans {@code kid} utilisent la clé active.
+     */
+    public SigningKey verificationKey(String kid) {
+        State current = state;
+        if (kid == null) {
+            return current.active();
+        }
+        SigningKey own = current.keys().get(kid);
+        return own != null ? own : current.peers().get(kid);
+    }
+
+    public JsonWebKeySet jwks() {
+        return state.jwks();
+    }
+
+    private State newState(SigningKey active, SigningKey next, Instant nextPublishedAt,
+                           Map<String, SigningKey> keys, Map<String, SigningKey> peers) {
+        Map<String, SigningKey> peersOnly = new LinkedHashMap<>(peers);
+        peersOnly.keySet().removeAll(keys.keySet());
+        List<SigningKey> published = new ArrayList<>(keys.values());
+        published.addAll(peersOnly.values());
+        return new State(active, next, nextPublishedAt, Map.copyOf(keys), Map.copyOf(peersOnly), buildJwks(published));
+    }
+
+    private KeyFactory keyFactory() throws NoSuchAlgorithmException {
+        return KeyFactory.getInstance(algorithm.getFamilyName().equals("ECDSA") ? "EC" : "RSA");
+    }
+
+    private KeyPair generateKeyPair() throws GeneralSecurityException {
+        if (algorithm == SignatureAlgorithm.ES256) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        }
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private JsonWebKeySet buildJwks(Iterable<SigningKey> keys) {
+        List<Map<String, String>> jwkList = new ArrayList<>();
+        for (SigningKey key : keys) {
+            jwkList.add(toJwk(key));
+        }
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(Map.of("keys", jwkList));
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            String etag = "\"" + base64Url(Arrays.copyOf(hash, 16)) + "\"";
+            return new JsonWebKeySet(body, etag);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to build JWKS", e);
+        }
+    }
+
+    private Map<String, String> toJwk(SigningKey key) {
+        Map<String, String> jwk = new LinkedHashMap<>();
+        jwk.put("kid", key.kid());
+        jwk.put("use", "sig");
+        jwk.put("alg", key.algorithm().getValue());
+        if (key.publicKey() instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(unsigned(rsa.getModulus(), 0)));
+            jwk.put("e", base64Url(unsigned(rsa.getPublicExponent(), 0)));
+        } else if (key.publicKey() instanceof ECPublicKey ec) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", base64Url(unsigned(ec.getW().getAffineX(), 32)));
+            jwk.put("y", base64Url(unsigned(ec.getW().getAffineY(), 32)));
+        }
+        return jwk;
+    }
+
+    static String keyId(PublicKey publicKey) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(publicKey.getEncoded());
+            return base64Url(Arrays.copyOf(hash, 12));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Représentation big-endian non signée, complétée à gauche jusqu'à {@code length} octets si demandé
+    private static byte[] unsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length >= length) {
+            return bytes;
+        }
+        byte[] padded = new byte[length];
+        System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+        return padded;
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static byte[] decodePem(Resource resource, String type) throws IOException {
+        String content = new String(resource.getInputStream().readAllBytes(), StandardCharsets.US_ASCII)
+                .replace("-----BEGIN " + type + "-----", "")
+                .replace("-----END " + type + "-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(content);
+    }
+}
@@ -0,0 +1,100 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import org.payetonkawa.auth.auth_service.model.SharedSigningKey;
+import org.payetonkawa.auth.auth_service.repository.SharedSigningKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Rotation périodique de la clé de signature (désactivée par défaut).
+ * Chaque passage rend active la clé publiée au passage précédent et publie la suivante : l'intervalle doit
+ * dépasser {@code auth.jwt.jwks.max-age}, sinon la promotion attend le passage d'après.
+ * <p>
+ * Plusieurs instances : chacune génère et signe avec ses propres clés. La clé publique suivante est écrite dans
+ * {@code signing_keys} avant de pouvoir être promue, et chaque instance recharge celles des autres toutes les
+ * {@code auth.jwt.rotation.sync-interval} (plus court que {@code max-age}, vérifié au démarrage) : une clé est
+ * connue de toutes les instances avant de signer. Une clé non enregistrée (base indisponible) n'est pas promue.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.jwt.rotation.enabled", havingValue = "true")
+public class SigningKeyRotationScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SigningKeyRotationScheduler.class);
+
+    private final SigningKeyRing keyRing;
+    private final SharedSigningKeyRepository sharedKeys;
+    // Au-delà, plus aucun jeton valide n'est signé par la clé : publiée, promue un passage plus tard,
+    // retirée au suivant, puis vérifiable pendant la durée de vie d'un jeton de rafraîchissement
+    private final Duration keyLifetime;
+
+    public SigningKeyRotationScheduler(SigningKeyRing keyRing,
+                                       SharedSigningKeyRepository sharedKeys,
+                                       @Value("${auth.jwt.rotation.interval:P1D}") Duration interval,
+                                       @Value("${auth.jwt.rotation.sync-interval:PT1M}") Duration syncInterval,
+                                       @Value("${auth.jwt.jwks.max-age:PT5M}") Duration publicationDelay,
+                                       @Value("${auth.jwt.refreshExpirationMs}") long retentionMs) {
+        if (syncInterval.compareTo(publicationDelay) >= 0) {
+            throw new IllegalStateException("auth.jwt.rotation.sync-interval (" + syncInterval
+                    + ") must be shorter than auth.jwt.jwks.max-age (" + publicationDelay
+                    + "): other instances must load a key before it signs");
+        }
+        this.keyRing = keyRing;
+        this.sharedKeys = sharedKeys;
+        this.keyLifetime = interval.multipliedBy(2).plus(publicationDelay).plusMillis(retentionMs);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.jwt.rotation.interval:P1D}",
+            initialDelayString = "${auth.jwt.rotation.interval:P1D}")
+    public void rotate() {
+        try {
+            // Clé suivante non enregistrée au passage précédent : enregistrée maintenant, promue au suivant
+            if (share(keyRing.next())) {
+                return;
+            }
+            keyRing.rotate();
+            share(keyRing.next());
+        } catch (GeneralSecurityException | DataAccessException e) {
+            logger.error("JWT signing key rotation failed, keeping key {}", keyRing.active().kid(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.jwt.rotation.sync-interval:PT1M}")
+    public void syncPeerKeys() {
+        Instant since = Instant.now().minus(keyLifetime);
+        try {
+            sharedKeys.deletePublishedBefore(since);
+            List<PublicKey> publicKeys = new ArrayList<>();
+            for (SharedSigningKey shared : sharedKeys.findByPublishedAtAfter(since)) {
+                if (keyRing.algorithm().getValue().equals(shared.getAlgorithm())) {
+                    publicKeys.add(keyRing.decodePublicKey(shared.getPublicKey()));
+                }
+            }
+            keyRing.replacePeerKeys(publicKeys);
+        } catch (GeneralSecurityException | DataAccessException e) {
+            logger.warn("Unable to load the JWT signing keys of other instances", e);
+        }
+    }
+
+    // Vrai si la clé vient d'être enregistrée
+    private boolean share(SigningKeyRing.SigningKey key) {
+        if (key == null || sharedKeys.existsById(key.kid())) {
+            return false;
+        }
+        sharedKeys.save(new SharedSigningKey(key.kid(), key.algorithm().getValue(),
+                Base64.getEncoder().encodeToString(key.publicKey().getEncoded()), Instant.now()));
+        return true;
+    }
+}
@@ -0,0 +1,178 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.payetonkawa.auth.auth_service.model.RevokedToken;
+import org.payetonkawa.auth.auth_service.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Liste des jetons révoqués (par {@code jti}), persistée dans {@code revoked_tokens} avec une durée de vie
+ * égale à celle restant au jeton.
+ * <p>
+ * La vérification par requête ne fait aucune E/S : un filtre de Bloom en mémoire écarte les jetons non révoqués,
+ * et seuls ses positifs sont confirmés dans l'ensemble exact (lui aussi en mémoire). Les révocations des autres
+ * instances sont récupérées périodiquement ; le filtre est reconstruit à chaque purge des entrées expirées.
+ * <p>
+ * Le chargement initial se fait au démarrage des composants, juste avant celui du serveur web, et non à la
+ * création du bean : le rafraîchissement du contexte (et l'exécution d'entraînement CDS) ne touche pas la base.
+ */
+@Component
+public class TokenDenylist implements SmartLifecycle {
+
+    // Avant le serveur web (phase DEFAULT_PHASE - 2048) : aucune requête n'est servie sans la liste
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenDenylist.class);
+
+    // Marge de resynchronisation : couvre les écarts d'horloge entre instances
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private final RevokedTokenRepository repository;
+    private final int expectedSize;
+    private final double falsePositiveRate;
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+    private volatile Instant lastSync = Instant.EPOCH;
+    private volatile boolean running;
+
+    private final Counter bloomNegatives;
+    private final Counter falsePositives;
+    private final Counter revokedHits;
+
+    public TokenDenylist(RevokedTokenRepository repository,
+                         @Value("${auth.revocation.expected-size:100000}") int expectedSize,
+                         @Value("${auth.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                         MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.expectedSize = expectedSize;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedSize, falsePositiveRate);
+
+        this.bloomNegatives = lookups("negative", meterRegistry);
+        this.falsePositives = lookups("false_positive", meterRegistry);
+        this.revokedHits = lookups("revoked", meterRegistry);
+        Gauge.builder("token.denylist.size", revoked, Map::size)
+                .description("Revoked tokens not yet expired")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        load();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    public void load() {
+        Instant now = Instant.now();
+        for (RevokedToken token : repository.findByExpiresAtAfter(now)) {
+            revoked.put(token.getJti(), token.getExpiresAt());
+        }
+        lastSync = now;
+        rebuild();
+        logger.info("Loaded {} revoked token(s)", revoked.size());
+    }
+
+    /**
+     * Révoque un jeton jusqu'à son expiration. Sans effet si le jeton est déjà expiré.
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        Instant now = Instant.now();
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(now)) {
+            return;
+        }
+        repository.save(new RevokedToken(jti, expiresAt, now));
+        remember(jti, expiresAt);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        if (!filter.mightContain(jti)) {
+            bloomNegatives.increment();
+            return false;
+        }
+        Instant expiresAt = revoked.get(jti);
+        if (expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            falsePositives.increment();
+            return false;
+        }
+        revokedHits.increment();
+        return true;
+    }
+
+    /** Récupère les révocations enregistrées par les autres instances. */
+    @Scheduled(fixedDelayString = "${auth.revocation.sync-interval:PT10S}")
+    public void sync() {
+        Instant now = Instant.now();
+        for (RevokedToken token : repository.findByRevokedAtAfterAndExpiresAtAfter(lastSync.minus(SYNC_OVERLAP), now)) {
+            if (!revoked.containsKey(token.getJti())) {
+                remember(token.getJti(), token.getExpiresAt());
+            }
+        }
+        lastSync = now;
+    }
+
+    /** Supprime les révocations expirées (base et mémoire) et reconstruit le filtre sans elles. */
+    @Scheduled(fixedDelayString = "${auth.revocation.purge-interval:PT1H}")
+    public void purge() {
+        Instant now = Instant.now();
+        int deleted = repository.deleteExpired(now);
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        rebuild();
+        if (deleted > 0) {
+            logger.info("Purged {} expired token revocation(s)", deleted);
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private synchronized void remember(String jti, Instant expiresAt) {
+        revoked.put(jti, expiresAt);
+        filter.put(jti);
+    }
+
+    // Sous le même verrou que remember() : aucun ajout ne peut se perdre pendant la reconstruction
+    private synchronized void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedSize, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+
+    private static Counter lookups(String result, MeterRegistry meterRegistry) {
+        return Counter.builder("token.denylist.lookups")
+                .description("Revocation checks by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
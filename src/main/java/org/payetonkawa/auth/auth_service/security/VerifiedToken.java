@@ -0,0 +1,54 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import org.payetonkawa.auth.auth_service.dto.UserProfileResponse;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Résultat immuable d'une vérification de jeton par {@link JwtService#verify(String)}.
+ * Soit le jeton est valide (sujet, rôles, expiration, identifiant {@code jti}), soit {@link #failure()}
+ * indique pourquoi il a été rejeté.
+ * {@link #profile()} n'est renseigné que pour un jeton d'accès émis avec les claims de profil
+ * ({@code auth.jwt.profile-claims}) ; {@link #issuedAt()} permet alors de juger de sa fraîcheur.
+ */
+public record VerifiedToken(String subject, List<String> roles, Instant expiresAt, Failure failure, String tokenId,
+                            Instant issuedAt, UserProfileResponse profile) {
+
+    /** Attribut de requête sous lequel {@link JwtAuthFilter} publie le jeton d'accès vérifié. */
+    public static final String REQUEST_ATTRIBUTE = "verifiedAccessToken";
+
+    public enum Failure {
+        MISSING,
+        EXPIRED,
+        MALFORMED,
+        BAD_SIGNATURE,
+        UNSUPPORTED,
+        INVALID,
+        REVOKED
+    }
+
+    public VerifiedToken {
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+
+    public static VerifiedToken valid(String subject, List<String> roles, Instant expiresAt) {
+        return valid(null, subject, roles, expiresAt);
+    }
+
+    public static VerifiedToken valid(String tokenId, String subject, List<String> roles, Instant expiresAt) {
+        return new VerifiedToken(subject, roles, expiresAt, null, tokenId, null, null);
+    }
+
+    public static VerifiedToken failed(Failure failure) {
+        return new VerifiedToken(null, List.of(), null, failure, null, null, null);
+    }
+
+    public VerifiedToken withProfile(Instant issuedAt, UserProfileResponse profile) {
+        return new VerifiedToken(subject, roles, expiresAt, failure, tokenId, issuedAt, profile);
+    }
+
+    public boolean isValid() {
+        return failure == null;
+    }
+}
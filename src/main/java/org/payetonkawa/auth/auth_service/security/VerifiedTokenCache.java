@@ -0,0 +1,86 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache des jetons d'accès déjà vérifiés.
+ * La clé est un condensé SHA-256 du jeton (le jeton brut n'est jamais conservé) et chaque entrée
+ * expire à l'instant {@code exp} du jeton. La taille est bornée (éviction W-TinyLFU de Caffeine).
+ */
+@Component
+public class VerifiedTokenCache {
+
+    public record VerifiedAuthentication(VerifiedToken token, List<GrantedAuthority> authorities) {
+    }
+
+    private final Cache<String, VerifiedAuthentication> cache;
+
+    public VerifiedTokenCache(@Value("${auth.jwt.cache.max-size:10000}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+    }
+
+    public VerifiedAuthentication get(String token) {
+        return cache.getIfPresent(digest(token));
+    }
+
+    public void put(String token, VerifiedAuthentication authentication) {
+        Instant expiresAt = authentication.token().expiresAt();
+        if (expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        cache.put(digest(token), authentication);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedAuthentication> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedAuthentication value, long currentTime) {
+            long millis = value.token().expiresAt().toEpochMilli() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedAuthentication value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedAuthentication value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidations de cache différées au commit de la transaction courante.
+ * <p>
+ * Invalidé avant le commit, un cache peut être rechargé par une lecture concurrente qui voit encore l'ancienne
+ * ligne, et le rester jusqu'à son TTL. Hors transaction, l'action s'exécute tout de suite.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,14 +1,21 @@
 package org.payetonkawa.auth.auth_service.service;
 
 import lombok.RequiredArgsConstructor;
+import org.payetonkawa.auth.auth_service.dto.UserProfileResponse;
 import org.payetonkawa.auth.auth_service.model.User;
 import org.payetonkawa.auth.auth_service.repository.UserRepository;
 import org.payetonkawa.auth.auth_service.security.JwtService;
+import org.payetonkawa.auth.auth_service.security.PasswordHashingExecutor;
+import org.payetonkawa.auth.auth_service.security.TokenDenylist;
+import org.payetonkawa.auth.auth_service.security.VerifiedToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.payetonkawa.auth.auth_service.model.Role;
-import org.payetonkawa.auth.auth_service.repository.RoleRepository;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Service
@@ -18,10 +25,30 @@ public class AuthService {
     private final UserRepository repo;
     private final PasswordEncoder encoder;
     private final JwtService jwtService;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final PasswordRehashService rehashService;
+    private final LastLoginRecorder lastLoginRecorder;
+    private final ProfileCache profileCache;
+    private final TokenDenylist tokenDenylist;
+    private final EntityTagCache entityTags;
+    private final TransactionTemplate transactionTemplate;
 
     public boolean checkPassword(User user, String rawPassword) {
-        return encoder.matches(rawPassword, user.getPassword());
+        return hashingExecutor.execute(() -> encoder.matches(rawPassword, user.getPassword()));
+    }
+
+    // La date de dernière connexion est écrite en différé, sans sauvegarde complète de l'entité
+    public void recordLogin(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        user.setLastLogin(now);
+        lastLoginRecorder.record(user.getId(), now);
+        profileCache.updateLastLogin(user.getEmail(), now);
+    }
+
+    // À appeler après un login réussi : migration du hachage en arrière-plan si nécessaire
+    public void rehashPasswordIfNeeded(User user, String rawPassword) {
+        rehashService.rehashIfNeeded(user, rawPassword);
     }
 
     public String generateAccessToken(User user) {
@@ -31,33 +58,94 @@ public class AuthService {
         return jwtService.generateRefreshToken(user);
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findByEmail(String email) {
         return repo.findByEmail(email);
     }
 
+    // Transaction en écriture : lue sur le primaire même avec un réplica, donc avec la version @Version à jour.
+    // Pour les chemins qui modifient l'entité, et en repli quand le réplica ne voit pas encore une ligne récente
+    @Transactional
+    public Optional<User> findByEmailOnPrimary(String email) {
+        return repo.findByEmail(email);
+    }
+
+    // Profil de /me : servi depuis le cache, la base n'est lue qu'en cas d'absence.
+    // Pas de transaction ici (un succès du cache ne doit pas prendre de connexion) : findByEmail est en lecture seule.
+    // Après une modification connue de l'instance, relecture sur le primaire : le réplica peut être en retard
+    public Optional<UserProfileResponse> getProfile(String email) {
+        return profileCache.get(email, key -> (profileCache.changedRecently(key)
+                ? transactionTemplate.execute(status -> repo.findByEmail(key))
+                : repo.findByEmail(key))
+                .map(AuthService::toProfile).orElse(null));
+    }
+
+    // Profil signé dans le jeton d'accès : utilisable tant qu'aucune modification connue ne lui est postérieure
+    public boolean isProfileCurrent(VerifiedToken token) {
+        return token.profile() != null
+                && profileCache.isCurrent(token.subject(), token.profile().id(), token.issuedAt());
+    }
+
+    public static UserProfileResponse toProfile(User user) {
+        return new UserProfileResponse(
+                user.getId(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getStatus().name(),
+                user.getCreatedAt(),
+                user.getLastLogin(),
+                user.getRoles().stream().map(Role::getName).toList(),
+                user.getVersion()
+        );
+    }
+
+    // Inscription datée comme une modification : connexion et /me relisent ce compte sur le primaire un moment
     public void register(User user) {
-        user.setPassword(encoder.encode(user.getPassword()));
+        user.setPassword(encodePassword(user.getPassword()));
         repo.save(user);
+        profileCache.invalidate(user.getEmail());
+    }
+
+    // Compte créé ou modifié récemment sur cette instance : le réplica peut ne pas le voir encore
+    public boolean changedRecently(String email) {
+        return profileCache.changedRecently(email);
     }
 
     public Role getDefaultUserRole() {
-        return roleRepository.findByName("USER")
+        return roleRegistry.findByName("USER")
                 .orElseThrow(() -> new RuntimeException("Default role USER not found in database"));
     }
 
-    public String extractEmailFromToken(String token) {
-        return jwtService.getEmailFromToken(token);
+    public VerifiedToken verifyToken(String token) {
+        VerifiedToken verified = jwtService.verify(token);
+        if (verified.isValid() && tokenDenylist.isRevoked(verified.tokenId())) {
+            return VerifiedToken.failed(VerifiedToken.Failure.REVOKED);
+        }
+        return verified;
+    }
+
+    // Révoque un jeton encore valide jusqu'à son expiration ; un jeton invalide est ignoré
+    public void revokeToken(String token) {
+        VerifiedToken verified = jwtService.verify(token);
+        if (verified.isValid()) {
+            tokenDenylist.revoke(verified.tokenId(), verified.expiresAt());
+        }
     }
-    public boolean validateToken(String token) {
-        return jwtService.validateToken(token);
+
+    // Révocation par identifiant (administration) : expiration inconnue, on retient la durée de vie maximale
+    public void revokeTokenId(String jti) {
+        tokenDenylist.revoke(jti, Instant.now().plus(jwtService.maxTokenLifetime()));
     }
 
     public void save(User user) {
         repo.save(user);
+        profileCache.invalidate(user.getEmail());
+        entityTags.invalidateUser(user.getId());
     }
 
     public String encodePassword(String raw) {
-        return encoder.encode(raw);
+        return hashingExecutor.execute(() -> encoder.encode(raw));
     }
 
 
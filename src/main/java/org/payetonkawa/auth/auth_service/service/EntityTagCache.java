@@ -0,0 +1,116 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.payetonkawa.auth.auth_service.dto.UserProfileResponse;
+import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ETags forts des lectures d'utilisateurs et de rôles, dérivés des colonnes {@code version}.
+ * <p>
+ * Un utilisateur est identifié par sa version et sa date de dernière connexion, écrite hors JPA
+ * ({@link LastLoginRecorder}) donc sans incrément de version. La liste des rôles l'est par les couples
+ * (id, version) de tous les rôles.
+ * <p>
+ * Le dernier ETag calculé est gardé en mémoire : une requête {@code If-None-Match} qui correspond reçoit 304
+ * sans relire l'entité. Invalidé à chaque écriture ; le TTL borne l'écart avec une autre instance.
+ */
+@Component
+public class EntityTagCache {
+
+    private static final String ROLES_KEY = "roles";
+
+    private final Cache<String, String> tags;
+
+    public EntityTagCache(@Value("${auth.etag.cache.max-size:10000}") long maxSize,
+                          @Value("${auth.etag.cache.ttl:PT1M}") Duration ttl,
+                          MeterRegistry meterRegistry) {
+        this.tags = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tags, "etags");
+    }
+
+    public Optional<String> user(Long id) {
+        return Optional.ofNullable(tags.getIfPresent(userKey(id)));
+    }
+
+    // Calculé depuis l'entité qui vient d'être lue, puis mémorisé pour les requêtes suivantes
+    public String user(User user) {
+        String tag = userTag(user.getVersion(), user.getLastLogin());
+        tags.put(userKey(user.getId()), tag);
+        return tag;
+    }
+
+    public Optional<String> roles() {
+        return Optional.ofNullable(tags.getIfPresent(ROLES_KEY));
+    }
+
+    public String roles(List<Role> roles) {
+        String tag = rolesTag(roles);
+        tags.put(ROLES_KEY, tag);
+        return tag;
+    }
+
+    public void invalidateUser(Long id) {
+        if (id != null) {
+            tags.invalidate(userKey(id));
+        }
+    }
+
+    public void invalidateRoles() {
+        tags.invalidate(ROLES_KEY);
+    }
+
+    public void invalidateAll() {
+        tags.invalidateAll();
+    }
+
+    // Même formule pour /me : le profil porte la version de l'utilisateur
+    public static String userTag(UserProfileResponse profile) {
+        return userTag(profile.version(), profile.lastLogin());
+    }
+
+    static String userTag(Long version, LocalDateTime lastLogin) {
+        String tag = "u" + Long.toString(version == null ? 0 : version, 36);
+        return lastLogin == null
+                ? tag
+                : tag + "." + Long.toString(lastLogin.toInstant(ZoneOffset.UTC).toEpochMilli(), 36);
+    }
+
+    // Empreinte des couples (id, version) : une création, une suppression ou un renommage la change
+    static String rolesTag(List<Role> roles) {
+        StringBuilder raw = new StringBuilder();
+        roles.stream()
+                .sorted(Comparator.comparing(Role::getId, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .forEach(role -> raw.append(role.getId()).append(':').append(role.getVersion()).append(';'));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw.toString().getBytes(StandardCharsets.UTF_8));
+            return "r" + HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String userKey(Long id) {
+        return "user:" + id;
+    }
+}
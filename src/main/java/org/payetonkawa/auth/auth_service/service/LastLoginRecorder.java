@@ -0,0 +1,116 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tampon d'écriture différée pour {@code users.last_login}.
+ * Seul le dernier horodatage de chaque utilisateur est conservé ; le tampon est vidé périodiquement,
+ * ou dès qu'il atteint {@code auth.last-login.max-pending} entrées, en un seul UPDATE batché.
+ * Il est vidé une dernière fois à l'arrêt de l'application.
+ * La date de dernière connexion fait partie de l'ETag des utilisateurs : ceux écrits sont invalidés dans {@link EntityTagCache}.
+ */
+@Service
+public class LastLoginRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LastLoginRecorder.class);
+    private static final String UPDATE_SQL = "UPDATE users SET last_login = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxPending;
+    private final EntityTagCache entityTags;
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService flushExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("last-login-flush-"));
+    private final Counter flushedCounter;
+    private final Timer flushTimer;
+
+    public LastLoginRecorder(JdbcTemplate jdbcTemplate,
+                             @Value("${auth.last-login.max-pending:1000}") int maxPending,
+                             EntityTagCache entityTags,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxPending = maxPending;
+        this.entityTags = entityTags;
+        this.flushedCounter = Counter.builder("last_login.flushed").register(meterRegistry);
+        this.flushTimer = Timer.builder("last_login.flush").register(meterRegistry);
+        Gauge.builder("last_login.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    public void record(Long userId, LocalDateTime lastLogin) {
+        if (userId == null) {
+            return;
+        }
+        pending.merge(userId, lastLogin, (current, next) -> next.isAfter(current) ? next : current);
+
+        if (pending.size() >= maxPending && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.last-login.flush-interval:PT5S}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, LocalDateTime> entry : pending.entrySet()) {
+            // Retrait conditionnel : une connexion plus récente arrivée entre-temps reste dans le tampon
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                ids.add(entry.getKey());
+                batch.add(new Object[]{Timestamp.valueOf(entry.getValue()), entry.getKey()});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(UPDATE_SQL, batch));
+            flushedCounter.increment(batch.size());
+            ids.forEach(entityTags::invalidateUser);
+        } catch (RuntimeException e) {
+            // Remise en tampon pour la prochaine tentative, sans écraser un horodatage plus récent
+            for (int i = 0; i < ids.size(); i++) {
+                record(ids.get(i), ((Timestamp) batch.get(i)[0]).toLocalDateTime());
+            }
+            logger.warn("Flushing {} last_login update(s) failed, will retry: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+    }
+}
@@ -0,0 +1,80 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.payetonkawa.auth.auth_service.model.User;
+import org.payetonkawa.auth.auth_service.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Migration transparente des hachages de mots de passe après un login réussi.
+ * Un hachage d'un coût inférieur à la cible (ou sans préfixe {id}) est recalculé en arrière-plan,
+ * hors du chemin de la requête. Si la file est pleine, la migration est simplement reportée au prochain login.
+ */
+@Service
+public class PasswordRehashService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordRehashService.class);
+
+    private final PasswordEncoder encoder;
+    private final UserRepository repo;
+    private final ThreadPoolExecutor executor;
+    private final Counter upgradedCounter;
+    private final Counter skippedCounter;
+
+    public PasswordRehashService(PasswordEncoder encoder, UserRepository repo, MeterRegistry meterRegistry) {
+        this.encoder = encoder;
+        this.repo = repo;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100),
+                new CustomizableThreadFactory("password-rehash-"));
+        this.upgradedCounter = Counter.builder("password.rehash").tag("outcome", "upgraded").register(meterRegistry);
+        this.skippedCounter = Counter.builder("password.rehash").tag("outcome", "skipped").register(meterRegistry);
+    }
+
+    public boolean needsRehash(User user) {
+        return user.getId() != null && encoder.upgradeEncoding(user.getPassword());
+    }
+
+    public void rehashIfNeeded(User user, String rawPassword) {
+        if (!needsRehash(user)) {
+            return;
+        }
+        Long userId = user.getId();
+        String currentHash = user.getPassword();
+        try {
+            executor.execute(() -> rehash(userId, currentHash, rawPassword));
+        } catch (RejectedExecutionException e) {
+            skippedCounter.increment();
+        }
+    }
+
+    void rehash(Long userId, String currentHash, String rawPassword) {
+        try {
+            // Mise à jour conditionnelle : ne jamais écraser un mot de passe changé entre-temps
+            if (repo.updatePasswordIfUnchanged(userId, currentHash, encoder.encode(rawPassword)) == 1) {
+                upgradedCounter.increment();
+            } else {
+                skippedCounter.increment();
+            }
+        } catch (RuntimeException e) {
+            skippedCounter.increment();
+            logger.warn("Password rehash failed for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,113 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.payetonkawa.auth.auth_service.dto.UserProfileResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache des réponses de {@code GET /api/auth/me}, indexé par email (sujet du jeton).
+ * Invalidé à chaque écriture qui modifie un profil ; le TTL borne l'écart avec une autre instance.
+ * Les utilisateurs introuvables ne sont pas mis en cache.
+ * <p>
+ * Chaque invalidation est aussi datée, le temps de vie d'un jeton d'accès : un profil signé dans un jeton
+ * ({@code auth.jwt.profile-claims}) émis avant la modification n'est plus considéré comme à jour
+ * ({@link #isCurrent}). Ces dates sont locales à l'instance ; ailleurs, la fraîcheur suit la durée de vie du jeton.
+ */
+@Component
+public class ProfileCache {
+
+    private final Cache<String, UserProfileResponse> profiles;
+    private final Cache<String, Instant> changedByEmail;
+    private final Cache<Long, Instant> changedById;
+    private final Duration tokenLifetime;
+    private volatile Instant allChangedAt = Instant.EPOCH;
+
+    public ProfileCache(@Value("${auth.profile.cache.max-size:10000}") long maxSize,
+                        @Value("${auth.profile.cache.ttl:PT1M}") Duration ttl,
+                        @Value("${auth.jwt.expirationMs:900000}") long accessTokenLifetimeMs,
+                        MeterRegistry meterRegistry) {
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, "profiles");
+        // Au-delà de la durée de vie d'un jeton d'accès, tous ceux émis avant la modification ont expiré
+        this.tokenLifetime = Duration.ofMillis(accessTokenLifetimeMs);
+        this.changedByEmail = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(tokenLifetime).build();
+        this.changedById = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(tokenLifetime).build();
+    }
+
+    public Optional<UserProfileResponse> get(String email, Function<String, UserProfileResponse> loader) {
+        return Optional.ofNullable(profiles.get(email, loader));
+    }
+
+    // Après un login : la date part en écriture différée, on met à jour l'entrée existante sans la recharger
+    public void updateLastLogin(String email, LocalDateTime lastLogin) {
+        if (email == null) {
+            return;
+        }
+        profiles.asMap().computeIfPresent(email, (key, p) -> new UserProfileResponse(
+                p.id(), p.email(), p.firstname(), p.lastname(), p.status(), p.createdAt(), lastLogin, p.roles(),
+                p.version()));
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            profiles.invalidate(email);
+            changedByEmail.put(email, Instant.now());
+        }
+    }
+
+    // Suppression par identifiant : parcours des entrées (opération d'administration, rare)
+    public void invalidateUser(Long userId) {
+        profiles.asMap().values().removeIf(profile -> Objects.equals(profile.id(), userId));
+        if (userId != null) {
+            changedById.put(userId, Instant.now());
+        }
+    }
+
+    public void invalidateAll() {
+        profiles.invalidateAll();
+        allChangedAt = Instant.now();
+    }
+
+    /**
+     * Vrai si aucune modification connue de ce profil n'est postérieure à l'émission du jeton.
+     * {@code iat} est à la seconde : un jeton émis dans la seconde d'une modification est tenu pour périmé,
+     * faute de savoir s'il la précède.
+     */
+    public boolean isCurrent(String email, Long userId, Instant issuedAt) {
+        if (issuedAt == null) {
+            return false;
+        }
+        return !changedAfter(allChangedAt, issuedAt)
+                && !changedAfter(email == null ? null : changedByEmail.getIfPresent(email), issuedAt)
+                && !changedAfter(userId == null ? null : changedById.getIfPresent(userId), issuedAt);
+    }
+
+    /**
+     * Vrai si ce profil (ou tous) a été modifié sur cette instance depuis moins que la durée de vie d'un jeton
+     * d'accès : un réplica en retard peut encore servir l'ancienne ligne.
+     */
+    public boolean changedRecently(String email) {
+        return (email != null && changedByEmail.getIfPresent(email) != null)
+                || allChangedAt.isAfter(Instant.now().minus(tokenLifetime));
+    }
+
+    private static boolean changedAfter(Instant changedAt, Instant issuedAt) {
+        return changedAt != null && !issuedAt.isAfter(changedAt.truncatedTo(ChronoUnit.SECONDS));
+    }
+}
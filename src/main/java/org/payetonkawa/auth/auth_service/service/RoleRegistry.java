@@ -0,0 +1,56 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.repository.RoleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache applicatif des rôles par nom : la table ne contient que quelques lignes et change rarement.
+ * Invalidé par {@link RoleService} à chaque création, modification ou suppression ; l'expiration
+ * bornée couvre les modifications faites par une autre instance. Les rôles inconnus ne sont pas mis en cache.
+ */
+@Component
+public class RoleRegistry {
+
+    private final RoleRepository roleRepository;
+    private final Cache<String, Role> byName;
+
+    public RoleRegistry(RoleRepository roleRepository,
+                        @Value("${auth.roles.cache.ttl:PT10M}") Duration ttl,
+                        MeterRegistry meterRegistry) {
+        this.roleRepository = roleRepository;
+        this.byName = Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byName, "roles");
+    }
+
+    /**
+     * Rôle par nom. Une copie détachée est renvoyée à chaque appel pour que l'instance en cache ne soit jamais modifiée.
+     */
+    public Optional<Role> findByName(String name) {
+        Role cached = byName.get(name, key -> roleRepository.findByName(key).orElse(null));
+        return Optional.ofNullable(cached).map(RoleRegistry::copy);
+    }
+
+    public void invalidateAll() {
+        byName.invalidateAll();
+    }
+
+    private static Role copy(Role role) {
+        Role copy = new Role(role.getName());
+        copy.setId(role.getId());
+        copy.setVersion(role.getVersion());
+        return copy;
+    }
+}
@@ -4,8 +4,12 @@ import lombok.RequiredArgsConstructor;
 import org.payetonkawa.auth.auth_service.model.Role;
 import org.payetonkawa.auth.auth_service.repository.RoleRepository;
 import org.payetonkawa.auth.auth_service.repository.UserRepository;
+import org.payetonkawa.auth.auth_service.security.RoleCodebook;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -13,6 +17,10 @@ public class RoleService {
 
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
+    private final RoleRegistry roleRegistry;
+    private final ProfileCache profileCache;
+    private final RoleCodebook roleCodebook;
+    private final EntityTagCache entityTags;
 
     public Role createRole(String name) {
         if (roleRepository.findByName(name).isPresent()) {
@@ -20,13 +28,27 @@ public class RoleService {
         }
         Role role = new Role();
         role.setName(name);
-        return roleRepository.save(role);
+        Role saved = roleRepository.save(role);
+        roleRegistry.invalidateAll();
+        roleCodebook.refresh();
+        entityTags.invalidateRoles();
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Role> getAllRoles() {
         return roleRepository.findAll();
     }
 
+    public Optional<String> cachedRolesTag() {
+        return entityTags.roles();
+    }
+
+    public String rolesTag(List<Role> roles) {
+        return entityTags.roles(roles);
+    }
+
+    @Transactional(readOnly = true)
     public Role getRoleById(Long id) {
         return roleRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Role not found"));
@@ -35,7 +57,13 @@ public class RoleService {
     public Role updateRole(Long id, String newName) {
         Role role = getRoleById(id);
         role.setName(newName);
-        return roleRepository.save(role);
+        Role saved = roleRepository.save(role);
+        userRepository.incrementVersionForRole(id);
+        roleRegistry.invalidateAll();
+        profileCache.invalidateAll();
+        roleCodebook.refresh();
+        entityTags.invalidateAll();
+        return saved;
     }
 
     public void deleteRole(Long id) {
@@ -48,6 +76,10 @@ public class RoleService {
         }
 
         roleRepository.deleteById(id);
+        roleRegistry.invalidateAll();
+        profileCache.invalidateAll();
+        roleCodebook.refresh();
+        entityTags.invalidateRoles();
     }
 
 }
@@ -0,0 +1,188 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.UserExportRow;
+import org.payetonkawa.auth.auth_service.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Export complet des utilisateurs en CSV ou NDJSON.
+ * Les lignes sont lues par un curseur en lecture seule ({@code auth.export.fetch-size} lignes par aller-retour)
+ * et écrites au fil de l'eau : un utilisateur à la fois en mémoire, quelle que soit la taille de la table.
+ * La sortie est vidée après le premier utilisateur puis tous les {@code auth.export.flush-every} utilisateurs.
+ */
+@Service
+public class UserExportService {
+
+    static final List<String> CSV_COLUMNS =
+            List.of("id", "email", "firstName", "lastName", "roles", "status", "createdAt", "lastLogin");
+
+    private final UserRepository repo;
+    private final int fetchSize;
+    private final int flushEvery;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Counter exportedCounter;
+
+    public UserExportService(UserRepository repo,
+                             @Value("${auth.export.fetch-size:1000}") int fetchSize,
+                             @Value("${auth.export.flush-every:500}") int flushEvery,
+                             MeterRegistry meterRegistry) {
+        this.repo = repo;
+        this.fetchSize = fetchSize;
+        this.flushEvery = flushEvery;
+        this.exportedCounter = Counter.builder("users.export.rows").register(meterRegistry);
+    }
+
+    // Transaction ouverte pendant toute l'écriture : PostgreSQL ne lit par curseur qu'hors auto-commit
+    @Transactional(readOnly = true)
+    public long export(OutputStream output, UserFileFormat format) throws IOException {
+        try (Stream<UserExportRow> rows = repo.streamExportRows(fetchSize)) {
+            UserSink sink = format == UserFileFormat.CSV ? new CsvSink(output) : new NdjsonSink(output);
+            long count = 0;
+            Iterator<UserExportRow> iterator = rows.iterator();
+            UserExportRow row = iterator.hasNext() ? iterator.next() : null;
+            while (row != null) {
+                // Les lignes d'un même utilisateur (une par rôle) se suivent : tri par identifiant
+                UserExportRow first = row;
+                List<String> roles = new ArrayList<>(2);
+                while (row != null && row.id().equals(first.id())) {
+                    if (row.roleName() != null) {
+                        roles.add(row.roleName());
+                    }
+                    row = iterator.hasNext() ? iterator.next() : null;
+                }
+                sink.write(first, roles);
+                count++;
+                if (count == 1 || count % flushEvery == 0) {
+                    sink.flush();
+                }
+            }
+            sink.close();
+            exportedCounter.increment(count);
+            return count;
+        }
+    }
+
+    private interface UserSink {
+
+        void write(UserExportRow user, List<String> roles) throws IOException;
+
+        void flush() throws IOException;
+
+        // Vide la sortie sans fermer le flux de la réponse
+        void close() throws IOException;
+    }
+
+    private final class NdjsonSink implements UserSink {
+
+        private final JsonGenerator generator;
+
+        NdjsonSink(OutputStream output) throws IOException {
+            this.generator = jsonFactory.createGenerator(output, JsonEncoding.UTF8)
+                    .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(UserExportRow user, List<String> roles) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", user.id());
+            generator.writeStringField("email", user.email());
+            generator.writeStringField("firstName", user.firstName());
+            generator.writeStringField("lastName", user.lastName());
+            generator.writeArrayFieldStart("roles");
+            for (String role : roles) {
+                generator.writeString(role);
+            }
+            generator.writeEndArray();
+            generator.writeStringField("status", user.status() == null ? null : user.status().name());
+            generator.writeStringField("createdAt", toText(user.createdAt()));
+            generator.writeStringField("lastLogin", toText(user.lastLogin()));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvSink implements UserSink {
+
+        private final Writer writer;
+
+        CsvSink(OutputStream output) throws IOException {
+            this.writer = new OutputStreamWriter(new BufferedOutputStream(output, 16 * 1024), StandardCharsets.UTF_8);
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(UserExportRow user, List<String> roles) throws IOException {
+            writer.write(String.valueOf(user.id()));
+            writer.write(',');
+            writer.write(escape(user.email()));
+            writer.write(',');
+            writer.write(escape(user.firstName()));
+            writer.write(',');
+            writer.write(escape(user.lastName()));
+            writer.write(',');
+            writer.write(escape(String.join(";", roles)));
+            writer.write(',');
+            writer.write(user.status() == null ? "" : user.status().name());
+            writer.write(',');
+            writer.write(escape(toText(user.createdAt())));
+            writer.write(',');
+            writer.write(escape(toText(user.lastLogin())));
+            writer.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    // Même format que celui relu par l'import : guillemets si virgule, guillemet ou saut de ligne
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String toText(Object value) {
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package org.payetonkawa.auth.auth_service.service;
+
+/**
+ * Formats de fichier acceptés à l'import et produits à l'export des utilisateurs.
+ */
+public enum UserFileFormat {
+    CSV(UserFileFormat.CSV_VALUE, "csv"),
+    NDJSON(UserFileFormat.NDJSON_VALUE, "ndjson");
+
+    // Constantes utilisables dans les annotations (consumes / produces)
+    public static final String CSV_VALUE = "text/csv";
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private final String mediaType;
+    private final String extension;
+
+    UserFileFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static UserFileFormat fromExtension(String value) {
+        for (UserFileFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + value);
+    }
+}
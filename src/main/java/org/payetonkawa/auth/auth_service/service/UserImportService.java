@@ -0,0 +1,404 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.payetonkawa.auth.auth_service.dto.UserImportReport;
+import org.payetonkawa.auth.auth_service.dto.UserImportReport.RowError;
+import org.payetonkawa.auth.auth_service.dto.UserImportRow;
+import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.model.Status;
+import org.payetonkawa.auth.auth_service.model.User;
+import org.payetonkawa.auth.auth_service.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import en masse d'utilisateurs depuis un flux CSV ou NDJSON.
+ * Le flux est lu ligne à ligne et traité par lots de {@code auth.import.chunk-size} : validation,
+ * e-mails existants écartés en une requête, mots de passe hachés en parallèle sur un pool borné
+ * (distinct de celui des connexions), puis insertion batchée dans une transaction par lot.
+ * Seul le rapport d'erreurs, borné, est conservé en mémoire.
+ */
+@Service
+public class UserImportService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    static final String DEFAULT_ROLE = "USER";
+    static final List<String> CSV_COLUMNS = List.of("email", "password", "firstName", "lastName", "roles", "status");
+
+    private record PendingRow(long line, UserImportRow row, String error) {
+    }
+
+    private final UserRepository repo;
+    private final RoleRegistry roleRegistry;
+    private final PasswordEncoder encoder;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final ThreadPoolExecutor hashingPool;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final Counter importedCounter;
+    private final Counter failedCounter;
+    private final Timer chunkTimer;
+
+    public UserImportService(UserRepository repo,
+                             RoleRegistry roleRegistry,
+                             PasswordEncoder encoder,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${auth.import.chunk-size:500}") int chunkSize,
+                             @Value("${auth.import.max-errors:1000}") int maxErrors,
+                             @Value("${auth.import.hashing-threads:0}") int hashingThreads,
+                             MeterRegistry meterRegistry) {
+        this.repo = repo;
+        this.roleRegistry = roleRegistry;
+        this.encoder = encoder;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+
+        // Par défaut la moitié des cœurs : les connexions gardent leur propre pool de hachage.
+        // File bornée à un lot ; au-delà, le thread de l'import hache lui-même (contre-pression)
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.hashingPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(chunkSize),
+                new CustomizableThreadFactory("import-hash-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.importedCounter = Counter.builder("users.import.rows").tag("result", "imported").register(meterRegistry);
+        this.failedCounter = Counter.builder("users.import.rows").tag("result", "failed").register(meterRegistry);
+        this.chunkTimer = Timer.builder("users.import.chunk").register(meterRegistry);
+    }
+
+    public UserImportReport importUsers(InputStream input, UserFileFormat format) throws IOException {
+        Report report = new Report(maxErrors);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        Map<String, Integer> columns = null;
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == UserFileFormat.CSV && columns == null) {
+                columns = parseHeader(line.startsWith("\uFEFF") ? line.substring(1) : line);
+                continue;
+            }
+            chunk.add(format == UserFileFormat.CSV ? parseCsv(lineNumber, line, columns) : parseJson(lineNumber, line));
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk, report);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, report);
+        }
+
+        logger.info("User import finished: {} imported, {} failed", report.imported, report.failed);
+        return report.toResponse();
+    }
+
+    private void processChunk(List<PendingRow> chunk, Report report) {
+        chunkTimer.record(() -> {
+            List<PendingRow> valid = validate(chunk, report);
+            if (valid.isEmpty()) {
+                return;
+            }
+            List<User> users = hashAll(valid);
+            insert(valid, users, report);
+        });
+    }
+
+    // Erreurs de format, doublons dans le lot et e-mails déjà présents en base
+    private List<PendingRow> validate(List<PendingRow> chunk, Report report) {
+        List<PendingRow> candidates = new ArrayList<>(chunk.size());
+        Set<String> emails = new HashSet<>();
+        for (PendingRow pending : chunk) {
+            String error = pending.error() != null ? pending.error() : checkRow(pending.row());
+            if (error == null && !emails.add(normalizeEmail(pending.row().email()))) {
+                error = "Duplicate email in import";
+            }
+            if (error != null) {
+                report.fail(pending, error);
+                failedCounter.increment();
+            } else {
+                candidates.add(pending);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        Set<String> existing = repo.findExistingEmails(emails);
+        if (existing.isEmpty()) {
+            return candidates;
+        }
+        List<PendingRow> valid = new ArrayList<>(candidates.size());
+        for (PendingRow pending : candidates) {
+            if (existing.contains(normalizeEmail(pending.row().email()))) {
+                report.fail(pending, "Email already exists");
+                failedCounter.increment();
+            } else {
+                valid.add(pending);
+            }
+        }
+        return valid;
+    }
+
+    private String checkRow(UserImportRow row) {
+        if (row == null) {
+            return "Empty row";
+        }
+        if (row.email() == null || row.email().isBlank() || !row.email().contains("@")) {
+            return "Invalid email";
+        }
+        if (row.password() == null || row.password().isBlank()) {
+            return "Password is required";
+        }
+        if (row.status() != null && !row.status().isBlank()) {
+            try {
+                Status.valueOf(row.status().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return "Unknown status: " + row.status();
+            }
+        }
+        for (String role : roleNames(row)) {
+            if (roleRegistry.findByName(role).isEmpty()) {
+                return "Role not found: " + role;
+            }
+        }
+        return null;
+    }
+
+    private List<User> hashAll(List<PendingRow> valid) {
+        List<CompletableFuture<String>> hashes = new ArrayList<>(valid.size());
+        for (PendingRow pending : valid) {
+            String raw = pending.row().password();
+            hashes.add(CompletableFuture.supplyAsync(() -> encoder.encode(raw), hashingPool));
+        }
+
+        List<User> users = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            users.add(toUser(valid.get(i).row(), hashes.get(i).join()));
+        }
+        return users;
+    }
+
+    private User toUser(UserImportRow row, String passwordHash) {
+        User user = new User();
+        user.setEmail(normalizeEmail(row.email()));
+        user.setPassword(passwordHash);
+        user.setFirstName(row.firstName());
+        user.setLastName(row.lastName());
+        if (row.status() != null && !row.status().isBlank()) {
+            user.setStatus(Status.valueOf(row.status().trim().toUpperCase(Locale.ROOT)));
+        }
+        Set<Role> roles = new HashSet<>();
+        for (String name : roleNames(row)) {
+            roleRegistry.findByName(name).ifPresent(roles::add);
+        }
+        user.setRoles(roles);
+        return user;
+    }
+
+    // Un lot = une transaction ; si le lot échoue (course sur un e-mail), on rejoue ligne par ligne pour isoler l'erreur
+    private void insert(List<PendingRow> valid, List<User> users, Report report) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> repo.saveAll(users));
+            report.imported += users.size();
+            importedCounter.increment(users.size());
+            return;
+        } catch (DataAccessException e) {
+            logger.warn("Import chunk of {} row(s) failed, retrying row by row: {}", users.size(), e.getMessage());
+        }
+
+        for (int i = 0; i < users.size(); i++) {
+            // Instance neuve, hachage réutilisé : le lot annulé a laissé un id et une version sur les précédentes,
+            // qui feraient passer la ligne pour une entité existante (merge au lieu d'INSERT)
+            User user = toUser(valid.get(i).row(), users.get(i).getPassword());
+            try {
+                transactionTemplate.executeWithoutResult(status -> repo.save(user));
+                report.imported++;
+                importedCounter.increment();
+            } catch (DataAccessException e) {
+                report.fail(valid.get(i), "Insert failed: " + rootMessage(e));
+                failedCounter.increment();
+            }
+        }
+    }
+
+    private static List<String> roleNames(UserImportRow row) {
+        if (row.roles() == null || row.roles().isEmpty()) {
+            return List.of(DEFAULT_ROLE);
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String role : row.roles()) {
+            if (role != null && !role.isBlank()) {
+                names.add(role.trim().toUpperCase(Locale.ROOT));
+            }
+        }
+        return names.isEmpty() ? List.of(DEFAULT_ROLE) : List.copyOf(names);
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.trim();
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    // ---------- Lecture du flux ----------
+
+    private PendingRow parseJson(long line, String json) {
+        try {
+            return new PendingRow(line, objectMapper.readValue(json, UserImportRow.class), null);
+        } catch (JsonProcessingException e) {
+            return new PendingRow(line, null, "Malformed JSON");
+        }
+    }
+
+    private static Map<String, Integer> parseHeader(String header) {
+        List<String> names = splitCsv(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim();
+            for (String column : CSV_COLUMNS) {
+                if (column.equalsIgnoreCase(name)) {
+                    columns.put(column, i);
+                }
+            }
+        }
+        if (!columns.containsKey("email") || !columns.containsKey("password")) {
+            throw new IllegalArgumentException("CSV header must contain email and password columns");
+        }
+        return columns;
+    }
+
+    private static PendingRow parseCsv(long line, String text, Map<String, Integer> columns) {
+        List<String> fields;
+        try {
+            fields = splitCsv(text);
+        } catch (IllegalArgumentException e) {
+            return new PendingRow(line, null, e.getMessage());
+        }
+        String roles = field(fields, columns, "roles");
+        UserImportRow row = new UserImportRow(
+                field(fields, columns, "email"),
+                field(fields, columns, "password"),
+                field(fields, columns, "firstName"),
+                field(fields, columns, "lastName"),
+                roles == null || roles.isBlank() ? List.of() : Arrays.asList(roles.split(";")),
+                field(fields, columns, "status"));
+        return new PendingRow(line, row, null);
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    // CSV RFC 4180 sur une seule ligne : séparateur virgule, guillemets doublés pour échapper
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    @Override
+    public void destroy() {
+        hashingPool.shutdown();
+    }
+
+    private static final class Report {
+
+        private final int maxErrors;
+        private final List<RowError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void fail(PendingRow pending, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                String email = Optional.ofNullable(pending.row()).map(UserImportRow::email).orElse(null);
+                errors.add(new RowError(pending.line(), email, message));
+            }
+        }
+
+        UserImportReport toResponse() {
+            return new UserImportReport(imported, failed, List.copyOf(errors), failed > errors.size());
+        }
+    }
+}
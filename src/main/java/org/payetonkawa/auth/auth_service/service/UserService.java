@@ -1,57 +1,121 @@
 package org.payetonkawa.auth.auth_service.service;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.payetonkawa.auth.auth_service.dto.RoleResponse;
 import org.payetonkawa.auth.auth_service.dto.UpdateUserRequest;
+import org.payetonkawa.auth.auth_service.dto.UserFilter;
+import org.payetonkawa.auth.auth_service.dto.UserPage;
+import org.payetonkawa.auth.auth_service.dto.UserResponse;
 import org.payetonkawa.auth.auth_service.model.Status;
 import org.payetonkawa.auth.auth_service.model.User;
 import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.Keyset;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.SortKey;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.UserRoleRow;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.UserRow;
 import org.payetonkawa.auth.auth_service.repository.UserRepository;
-import org.payetonkawa.auth.auth_service.repository.RoleRepository;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository repo;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
+    private final ProfileCache profileCache;
+    private final EntityTagCache entityTags;
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * Page d'utilisateurs par clé (keyset) : les lignes sont lues en projection DTO,
+     * les rôles de la page en une seule requête. On lit {@code size + 1} lignes pour savoir s'il reste une page.
+     * Le curseur ne porte pas les filtres : la page suivante se demande avec les mêmes.
+     */
+    @Transactional(readOnly = true)
+    public UserPage findPage(UserFilter filter, Integer size, String after, String sort, String direction,
+                             boolean includeTotal) {
+        int limit = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        SortKey sortKey = parseSort(sort);
+        boolean ascending = parseDirection(direction);
+        Keyset keyset = after == null || after.isBlank() ? null : decodeCursor(after, sortKey);
+
+        UserFilter effectiveFilter = filter == null ? UserFilter.NONE : filter;
+        List<UserRow> rows = repo.findUserRows(effectiveFilter, sortKey, ascending, keyset, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+
+        List<UserRoleRow> roles = rows.isEmpty()
+                ? List.of()
+                : repo.findRoleRows(rows.stream().map(UserRow::id).toList());
 
-    public List<User> findAll() {
-        return repo.findAll();
+        String nextCursor = hasMore ? encodeCursor(sortKey, rows.get(rows.size() - 1)) : null;
+        Long total = !includeTotal ? null
+                : effectiveFilter.isEmpty() ? repo.estimateUserCount()
+                : repo.countUsers(effectiveFilter);
+        return new UserPage(toResponses(rows, roles), nextCursor, total);
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findById(Long id) {
         return repo.findById(id);
     }
 
+    public Optional<String> cachedTag(Long id) {
+        return entityTags.user(id);
+    }
+
+    public String entityTag(User user) {
+        return entityTags.user(user);
+    }
+
     @Transactional
     public Optional<User> update(Long id, UpdateUserRequest dto) {
         return repo.findById(id).map(user -> {
-            System.out.println("🟡 Mise à jour de l'utilisateur ID " + id);
-            System.out.println("Payload reçu: " + dto);
+            String previousEmail = user.getEmail();
 
             user.setFirstName(dto.firstName());
             user.setLastName(dto.lastName());
             user.setEmail(dto.email());
 
             if (dto.status() != null) {
-                System.out.println("➡️ Status: " + dto.status());
                 user.setStatus(Status.valueOf(dto.status().toUpperCase()));
             }
 
             if (dto.role() != null) {
-                System.out.println("➡️ Rôle: " + dto.role());
-                Role role = roleRepository.findByName(dto.role().toUpperCase())
+                Role role = roleRegistry.findByName(dto.role().toUpperCase())
                         .orElseThrow(() -> new RuntimeException("Role not found: " + dto.role()));
                 user.getRoles().clear();
                 user.getRoles().add(role);
             }
 
-            return repo.save(user);
+            User saved = repo.save(user);
+            // Ancienne et nouvelle adresse : le profil est mis en cache par e-mail
+            AfterCommit.run(() -> {
+                profileCache.invalidate(previousEmail);
+                profileCache.invalidate(saved.getEmail());
+                entityTags.invalidateUser(id);
+            });
+            return saved;
         });
     }
 
@@ -60,9 +124,94 @@ public class UserService {
     public boolean delete(Long id) {
         if (!repo.existsById(id)) return false;
         repo.deleteById(id);
+        profileCache.invalidateUser(id);
+        entityTags.invalidateUser(id);
         return true;
     }
 
+    static List<UserResponse> toResponses(List<UserRow> rows, List<UserRoleRow> roles) {
+        Map<Long, Set<RoleResponse>> rolesByUser = new HashMap<>();
+        for (UserRoleRow role : roles) {
+            rolesByUser.computeIfAbsent(role.userId(), id -> new HashSet<>())
+                    .add(new RoleResponse(role.roleId(), role.roleName()));
+        }
+        List<UserResponse> responses = new ArrayList<>(rows.size());
+        for (UserRow row : rows) {
+            responses.add(new UserResponse(
+                    row.id(),
+                    row.email(),
+                    row.firstName(),
+                    row.lastName(),
+                    row.status().name(),
+                    row.createdAt(),
+                    row.lastLogin(),
+                    rolesByUser.getOrDefault(row.id(), Set.of())
+            ));
+        }
+        return responses;
+    }
+
+    private static SortKey parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return SortKey.ID;
+        }
+        for (SortKey key : SortKey.values()) {
+            if (key.attribute().equalsIgnoreCase(sort)) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + sort);
+    }
+
+    private static boolean parseDirection(String direction) {
+        if (direction == null || direction.isBlank() || direction.equalsIgnoreCase("asc")) {
+            return true;
+        }
+        if (direction.equalsIgnoreCase("desc")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Unsupported direction: " + direction);
+    }
+
+    // Curseur opaque : base64url("<tri>|<valeur>|<id>")
+    static String encodeCursor(SortKey sort, UserRow last) {
+        Object value = switch (sort) {
+            case ID -> last.id();
+            case EMAIL -> last.email();
+            case CREATED_AT -> last.createdAt();
+        };
+        String raw = sort.name() + "|" + value + "|" + last.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Keyset decodeCursor(String cursor, SortKey expectedSort) {
+        SortKey sort;
+        String value;
+        Long id;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int first = raw.indexOf('|');
+            int last = raw.lastIndexOf('|');
+            sort = SortKey.valueOf(raw.substring(0, first));
+            value = raw.substring(first + 1, last);
+            id = Long.valueOf(raw.substring(last + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (sort != expectedSort) {
+            throw new IllegalArgumentException("Cursor does not match sort " + expectedSort.attribute());
+        }
+        try {
+            return switch (sort) {
+                case ID -> new Keyset(id, id);
+                case EMAIL -> new Keyset(value, id);
+                case CREATED_AT -> new Keyset(LocalDateTime.parse(value), id);
+            };
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
     public User create(User user) {
         if (user.getEmail() == null || user.getPassword() == null) {
             throw new IllegalArgumentException("Email and password must not be null");
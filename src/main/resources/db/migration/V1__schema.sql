@@ -0,0 +1,59 @@
+-- Schéma initial, identique à celui que déduit Hibernate des entités (vérifié au démarrage : ddl-auto=validate).
+-- Écrit en « if not exists » : une base créée auparavant par ddl-auto=update est mise en ligne de base (version 0)
+-- puis complétée par ce script sans perdre ses données.
+
+create sequence if not exists role_seq start with 1 increment by 1;
+create sequence if not exists users_seq start with 1 increment by 50;
+
+create table if not exists role (
+    id      bigint       not null,
+    version bigint       default 0 not null,
+    name    varchar(255) not null,
+    constraint pk_role primary key (id),
+    constraint uk_role_name unique (name)
+);
+
+create table if not exists users (
+    id         bigint       not null,
+    version    bigint       default 0 not null,
+    email      varchar(255) not null,
+    first_name varchar(255),
+    last_name  varchar(255),
+    name_key   varchar(255),
+    password   varchar(255) not null,
+    status     varchar(255) not null,
+    created_at timestamp(6),
+    last_login timestamp(6),
+    constraint pk_users primary key (id),
+    constraint uk_users_email unique (email),
+    constraint ck_users_status check (status in ('ACTIVE', 'INACTIVE'))
+);
+
+-- La clé primaire (role_id, user_id) sert les recherches par rôle ; l'index inverse, les rôles d'une page d'utilisateurs
+create table if not exists user_roles (
+    role_id bigint not null,
+    user_id bigint not null,
+    constraint pk_user_roles primary key (role_id, user_id),
+    constraint fk_user_roles_role foreign key (role_id) references role (id),
+    constraint fk_user_roles_user foreign key (user_id) references users (id)
+);
+
+create table if not exists revoked_tokens (
+    jti        varchar(64)                 not null,
+    expires_at timestamp(6) with time zone not null,
+    revoked_at timestamp(6) with time zone not null,
+    constraint pk_revoked_tokens primary key (jti)
+);
+
+-- Colonnes apparues après la création des tables sur les bases existantes
+alter table role add column if not exists version bigint default 0 not null;
+alter table users add column if not exists version bigint default 0 not null;
+alter table users add column if not exists name_key varchar(255);
+
+create index if not exists idx_users_created_at_id on users (created_at, id);
+create index if not exists idx_users_name_key_id on users (name_key, id);
+create index if not exists idx_users_status_created_at_id on users (status, created_at, id);
+create index if not exists idx_users_last_login_id on users (last_login, id);
+create index if not exists idx_user_roles_user_id_role_id on user_roles (user_id, role_id);
+create index if not exists idx_revoked_tokens_revoked_at on revoked_tokens (revoked_at);
+create index if not exists idx_revoked_tokens_expires_at on revoked_tokens (expires_at);
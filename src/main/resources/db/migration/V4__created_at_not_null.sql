@@ -0,0 +1,4 @@
+-- created_at est la clé du tri keyset (created_at, id) : une ligne NULL était sautée par le curseur.
+-- Date inconnue (lignes insérées hors JPA) : 1970-01-01, ces lignes passent en tête du tri.
+update users set created_at = timestamp '1970-01-01 00:00:00' where created_at is null;
+alter table users alter column created_at set not null;
@@ -0,0 +1,11 @@
+-- Clés publiques générées par la rotation d'une instance, chargées par les autres pour vérifier ses jetons.
+-- La clé privée reste sur l'instance qui l'a générée.
+create table if not exists signing_keys (
+    kid          varchar(64)                 not null,
+    algorithm    varchar(10)                 not null,
+    public_key   varchar(1024)               not null,
+    published_at timestamp(6) with time zone not null,
+    constraint pk_signing_keys primary key (kid)
+);
+
+create index if not exists idx_signing_keys_published_at on signing_keys (published_at);
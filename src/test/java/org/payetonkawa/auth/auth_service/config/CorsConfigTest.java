@@ -0,0 +1,53 @@
+package org.payetonkawa.auth.auth_service.config;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.payetonkawa.auth.auth_service.dto.UserFilter;
+import org.payetonkawa.auth.auth_service.dto.UserPage;
+import org.payetonkawa.auth.auth_service.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * CORS à travers la chaîne complète (Spring Security puis MVC), telle que la voit le front admin.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CorsConfigTest {
+
+    private static final String FRONTEND = "http://localhost:8080";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserService userService;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void userListing_crossOrigin_shouldExposePagingHeaders() throws Exception {
+        Mockito.when(userService.findPage(UserFilter.NONE, null, null, null, null, true))
+                .thenReturn(new UserPage(List.of(), "next", 42L));
+
+        mockMvc.perform(get("/api/auth/users").param("includeTotal", "true").header(HttpHeaders.ORIGIN, FRONTEND))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, FRONTEND))
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, containsString("X-Next-Cursor")))
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, containsString("X-Total-Estimate")))
+                .andExpect(header().string("X-Next-Cursor", "next"));
+    }
+}
@@ -0,0 +1,49 @@
+package org.payetonkawa.auth.auth_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.service.RoleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Câblage complet avec un réplica local : ici la même base H2, joignable par un second pool.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicated;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "auth.datasource.replica.url=jdbc:h2:mem:replicated;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "auth.datasource.replica.hikari.maximum-pool-size=2"
+})
+@ActiveProfiles("test")
+class ReadReplicaDataSourceConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReplicaFailoverDataSource readOnlyDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Test
+    void readOnlyServiceCalls_shouldBeServedThroughReplicaPool() {
+        assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+
+        assertTrue(roleService.getAllRoles().stream().map(Role::getName).anyMatch("USER"::equals));
+        assertTrue(readOnlyDataSource.isReplicaAvailable());
+        assertTrue(replicaDataSource.getHikariPoolMXBean().getTotalConnections() > 0);
+    }
+}
@@ -0,0 +1,112 @@
+package org.payetonkawa.auth.auth_service.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routage sur deux bases H2 distinctes : chacune contient une table {@code node} avec son propre nom.
+ */
+class ReadReplicaRoutingTest {
+
+    private DataSource primary;
+    private JdbcDataSource replica;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("routing_primary");
+        replica = h2("routing_replica");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void readOnlyTransactions_shouldUseReplica_andWritesThePrimary() {
+        ReplicaFailoverDataSource readOnly = failover(true);
+        DataSource routing = ReadReplicaDataSourceConfig.routing(primary, readOnly);
+
+        assertEquals("replica", currentNode(routing, true));
+        assertEquals("primary", currentNode(routing, false));
+        assertEquals("primary", new JdbcTemplate(routing).queryForObject("select name from node", String.class));
+    }
+
+    @Test
+    void replicaDown_shouldFallBackToPrimary() {
+        replica.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        ReplicaFailoverDataSource readOnly = failover(true);
+        DataSource routing = ReadReplicaDataSourceConfig.routing(primary, readOnly);
+
+        assertEquals("primary", currentNode(routing, true));
+        assertFalse(readOnly.isReplicaAvailable());
+        assertEquals(1, meterRegistry.get("datasource.replica.fallback").counter().count());
+        assertEquals(0, meterRegistry.get("datasource.replica.available").gauge().value());
+
+        // De retour : le contrôle périodique réactive le réplica
+        replica.setURL("jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1");
+        readOnly.checkReplica();
+        assertTrue(readOnly.isReplicaAvailable());
+        assertEquals("replica", currentNode(routing, true));
+    }
+
+    @Test
+    void replicaDown_withoutFallback_shouldFail() {
+        replica.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        DataSource routing = ReadReplicaDataSourceConfig.routing(primary, failover(false));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> currentNode(routing, true));
+    }
+
+    @Test
+    void explicitCredentials_shouldUseReplicaThenFallBackToPrimary() throws SQLException {
+        ReplicaFailoverDataSource readOnly = failover(true);
+
+        assertEquals("replica", node(readOnly.getConnection("", "")));
+
+        replica.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        assertEquals("primary", node(readOnly.getConnection("", "")));
+        assertFalse(readOnly.isReplicaAvailable());
+    }
+
+    private ReplicaFailoverDataSource failover(boolean fallback) {
+        return new ReplicaFailoverDataSource(primary, replica, Duration.ofSeconds(5), fallback, meterRegistry);
+    }
+
+    private static String currentNode(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        template.setReadOnly(readOnly);
+        return template.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("select name from node", String.class));
+    }
+
+    private static String node(Connection connection) throws SQLException {
+        try (connection; Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select name from node")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists node (name varchar(20))");
+        jdbc.execute("delete from node");
+        jdbc.update("insert into node values (?)", name.substring(name.indexOf('_') + 1));
+        return dataSource;
+    }
+}
@@ -1,9 +1,16 @@
 package org.payetonkawa.auth.auth_service.controller;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.dto.UserProfileResponse;
 import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.model.Status;
 import org.payetonkawa.auth.auth_service.model.User;
+import org.payetonkawa.auth.auth_service.security.LoginRateLimitedException;
+import org.payetonkawa.auth.auth_service.security.LoginRateLimiter;
+import org.payetonkawa.auth.auth_service.security.PasswordHashingBusyException;
+import org.payetonkawa.auth.auth_service.security.VerifiedToken;
 import org.payetonkawa.auth.auth_service.service.AuthService;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -11,8 +18,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -26,12 +37,19 @@ class AuthControllerTest {
     @MockBean
     private AuthService authService;
 
+    @MockBean
+    private LoginRateLimiter loginRateLimiter;
+
     private final String fakeToken = "fakeToken";
 
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setup() {
-        AuthController controller = new AuthController(authService);
+        meterRegistry = new SimpleMeterRegistry();
+        AuthController controller = new AuthController(authService, loginRateLimiter);
         mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .addInterceptors(new AuthMetricsInterceptor(meterRegistry))
                 .build();  // Pas de CSRF ici, pas de filtres de sécurité.
     }
 
@@ -112,6 +130,27 @@ class AuthControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(header().exists("Set-Cookie"))
                 .andExpect(content().string("Login OK"));
+
+        verify(authService).recordLogin(mockUser);
+        verify(authService, never()).save(any());
+    }
+
+    @Test
+    void login_rateLimited_shouldReturn429BeforeLookup() throws Exception {
+        doThrow(new LoginRateLimitedException("Too many login attempts for this ip", Duration.ofSeconds(12)))
+                .when(loginRateLimiter).check(any(), eq("test@example.com"));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"test@example.com\",\"password\":\"pass123\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "12"));
+
+        verify(authService, never()).findByEmail(any());
+        verify(authService, never()).checkPassword(any(), any());
+        assertEquals(1, meterRegistry.get("auth.requests")
+                .tags("endpoint", "login", "outcome", "rate_limited")
+                .timer().count());
     }
 
     @Test
@@ -131,12 +170,77 @@ class AuthControllerTest {
                 .andDo(print())
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string("Identifiants invalides"));
+
+        assertEquals(1, meterRegistry.get("auth.requests")
+                .tag("endpoint", "login").tag("outcome", "bad_credentials").timer().count());
+        // E-mail inconnu : une seule lecture, sur le réplica
+        verify(authService, never()).findByEmailOnPrimary(any());
+    }
+
+    @Test
+    void login_justRegisteredUserNotYetOnReplica_shouldFallBackToPrimary() throws Exception {
+        User user = new User();
+        user.setEmail("new@example.com");
+        user.setPassword("encodedPassword");
+        user.setStatus(Status.ACTIVE);
+        when(authService.findByEmail("new@example.com")).thenReturn(Optional.empty());
+        when(authService.changedRecently("new@example.com")).thenReturn(true);
+        when(authService.findByEmailOnPrimary("new@example.com")).thenReturn(Optional.of(user));
+        when(authService.checkPassword(user, "pass123")).thenReturn(true);
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"new@example.com\",\"password\":\"pass123\"}"))
+                .andExpect(status().isOk());
+
+        verify(authService).recordLogin(user);
+    }
+
+    @Test
+    void login_inactiveUser_shouldReturn403AndRecordInactiveOutcome() throws Exception {
+        User mockUser = new User();
+        mockUser.setEmail("test@example.com");
+        mockUser.setStatus(Status.INACTIVE);
+        when(authService.findByEmail("test@example.com")).thenReturn(Optional.of(mockUser));
+        when(authService.checkPassword(mockUser, "password")).thenReturn(true);
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"test@example.com\",\"password\":\"password\"}"))
+                .andExpect(status().isForbidden());
+
+        assertEquals(1, meterRegistry.get("auth.requests")
+                .tag("endpoint", "login").tag("outcome", "inactive").timer().count());
+    }
+
+    @Test
+    void login_hashingPoolSaturated_shouldReturn503WithRetryAfter() throws Exception {
+        User mockUser = new User();
+        mockUser.setEmail("test@example.com");
+        mockUser.setPassword("encodedPassword");
+
+        when(authService.findByEmail("test@example.com")).thenReturn(Optional.of(mockUser));
+        when(authService.checkPassword(any(), eq("pass123")))
+                .thenThrow(new PasswordHashingBusyException("busy", Duration.ofSeconds(2)));
+
+        String jsonBody = """
+                {
+                  "email": "test@example.com",
+                  "password": "pass123"
+                }
+                """;
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonBody))
+                .andDo(print())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
     }
 
     @Test
     void refreshToken_valid_shouldReturn200() throws Exception {
-        when(authService.validateToken(fakeToken)).thenReturn(true);
-        when(authService.extractEmailFromToken(fakeToken)).thenReturn("test@example.com");
+        when(authService.verifyToken(fakeToken)).thenReturn(validToken("test@example.com"));
         when(authService.generateAccessToken(any(User.class))).thenReturn("access-token");
         when(authService.findByEmail("test@example.com"))
                 .thenReturn(Optional.of(new User()));  // Corrigé
@@ -151,9 +255,60 @@ class AuthControllerTest {
                 .andExpect(content().string("Token refreshed"));
     }
 
+    @Test
+    void refreshToken_userNotYetOnReplica_shouldFallBackToPrimary() throws Exception {
+        User user = new User();
+        when(authService.verifyToken(fakeToken)).thenReturn(validToken("test@example.com"));
+        when(authService.findByEmail("test@example.com")).thenReturn(Optional.empty());
+        when(authService.findByEmailOnPrimary("test@example.com")).thenReturn(Optional.of(user));
+        when(authService.generateAccessToken(user)).thenReturn("access-token");
+
+        mockMvc.perform(post("/api/auth/refresh-token")
+                        .cookie(new jakarta.servlet.http.Cookie("refresh_token", fakeToken)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updateProfile_shouldLoadUserFromPrimary() throws Exception {
+        User user = new User();
+        user.setEmail("test@example.com");
+        when(authService.verifyToken(fakeToken)).thenReturn(validToken("test@example.com"));
+        when(authService.findByEmailOnPrimary("test@example.com")).thenReturn(Optional.of(user));
+
+        mockMvc.perform(put("/api/auth/me")
+                        .cookie(new jakarta.servlet.http.Cookie("access_token", fakeToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Ada\",\"lastName\":\"Lovelace\"}"))
+                .andExpect(status().isOk());
+
+        // Version @Version lue sur le réplica : l'UPDATE pourrait ne trouver aucune ligne
+        verify(authService, never()).findByEmail(any());
+        verify(authService).save(user);
+        assertEquals("Ada", user.getFirstName());
+    }
+
+    @Test
+    void changePassword_shouldLoadUserFromPrimary() throws Exception {
+        User user = new User();
+        user.setEmail("test@example.com");
+        when(authService.verifyToken(fakeToken)).thenReturn(validToken("test@example.com"));
+        when(authService.findByEmailOnPrimary("test@example.com")).thenReturn(Optional.of(user));
+        when(authService.checkPassword(user, "old")).thenReturn(true);
+        when(authService.encodePassword("new")).thenReturn("hash");
+
+        mockMvc.perform(put("/api/auth/change-password")
+                        .cookie(new jakarta.servlet.http.Cookie("access_token", fakeToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"oldPassword\":\"old\",\"newPassword\":\"new\",\"confirmPassword\":\"new\"}"))
+                .andExpect(status().isOk());
+
+        verify(authService, never()).findByEmail(any());
+        verify(authService).save(user);
+    }
+
     @Test
     void refreshToken_invalid_shouldReturn400() throws Exception {
-        when(authService.validateToken(fakeToken)).thenReturn(false);
+        when(authService.verifyToken(fakeToken)).thenReturn(VerifiedToken.failed(VerifiedToken.Failure.BAD_SIGNATURE));
 
         mockMvc.perform(post("/api/auth/refresh-token")
                         .cookie(new jakarta.servlet.http.Cookie("refresh_token", fakeToken)))
@@ -172,16 +327,21 @@ class AuthControllerTest {
     }
 
     @Test
-    void me_validToken_shouldReturnUserInfo() throws Exception {
-        User mockUser = new User();
-        mockUser.setId(1L);
-        mockUser.setEmail("test@example.com");
-        mockUser.setFirstName("John");
-        mockUser.setLastName("Doe");
+    void logout_withCookies_shouldRevokeBothTokens() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                        .cookie(new jakarta.servlet.http.Cookie("access_token", "access"),
+                                new jakarta.servlet.http.Cookie("refresh_token", "refresh")))
+                .andExpect(status().isOk());
+
+        verify(authService).revokeToken("access");
+        verify(authService).revokeToken("refresh");
+    }
 
-        when(authService.validateToken(fakeToken)).thenReturn(true);
-        when(authService.extractEmailFromToken(fakeToken)).thenReturn("test@example.com");
-        when(authService.findByEmail("test@example.com")).thenReturn(Optional.of(mockUser));
+    @Test
+    void me_validToken_shouldReturnUserInfo() throws Exception {
+        when(authService.verifyToken(fakeToken)).thenReturn(validToken("test@example.com"));
+        when(authService.getProfile("test@example.com"))
+                .thenReturn(Optional.of(profile("test@example.com", "John", "Doe")));
 
         mockMvc.perform(get("/api/auth/me")
                         .cookie(new jakarta.servlet.http.Cookie("access_token", fakeToken)))
@@ -192,13 +352,110 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.lastname").value("Doe"));
     }
 
+    @Test
+    void me_matchingETag_shouldReturn304() throws Exception {
+        when(authService.verifyToken(fakeToken)).thenReturn(validToken("test@example.com"));
+        when(authService.getProfile("test@example.com"))
+                .thenReturn(Optional.of(profile("test@example.com", "John", "Doe")));
+
+        String etag = mockMvc.perform(get("/api/auth/me")
+                        .cookie(new jakarta.servlet.http.Cookie("access_token", fakeToken)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"u3\""))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/auth/me")
+                        .cookie(new jakarta.servlet.http.Cookie("access_token", fakeToken))
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void me_invalidToken_shouldReturn401() throws Exception {
-        when(authService.validateToken(fakeToken)).thenReturn(false);
+        when(authService.verifyToken(fakeToken)).thenReturn(VerifiedToken.failed(VerifiedToken.Failure.BAD_SIGNATURE));
 
         mockMvc.perform(get("/api/auth/me")
                         .cookie(new jakarta.servlet.http.Cookie("access_token", fakeToken)))
                 .andDo(print())
                 .andExpect(status().isUnauthorized());
+
+        assertEquals(1, meterRegistry.get("auth.requests")
+                .tag("endpoint", "me").tag("outcome", "invalid_token").timer().count());
+    }
+
+    @Test
+    void me_tokenVerifiedByFilter_shouldNotVerifyAgain() throws Exception {
+        when(authService.getProfile("test@example.com"))
+                .thenReturn(Optional.of(profile("test@example.com", null, null)));
+
+        mockMvc.perform(get("/api/auth/me")
+                        .cookie(new jakarta.servlet.http.Cookie("access_token", fakeToken))
+                        .requestAttr(VerifiedToken.REQUEST_ATTRIBUTE, validToken("test@example.com")))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("test@example.com"));
+
+        verify(authService, never()).verifyToken(any());
+    }
+
+    @Test
+    void me_profileInToken_shouldAnswerWithoutLookup() throws Exception {
+        VerifiedToken token = validToken("test@example.com")
+                .withProfile(Instant.now(), profile("test@example.com", "John", "Doe"));
+        when(authService.verifyToken(fakeToken)).thenReturn(token);
+        when(authService.isProfileCurrent(token)).thenReturn(true);
+
+        mockMvc.perform(get("/api/auth/me")
+                        .cookie(new jakarta.servlet.http.Cookie("access_token", fakeToken)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstname").value("John"))
+                .andExpect(header().doesNotExist("Set-Cookie"));
+
+        verify(authService, never()).getProfile(any());
+        verify(authService, never()).findByEmail(any());
+    }
+
+    @Test
+    void me_staleProfileInToken_shouldReloadAndReissueToken() throws Exception {
+        VerifiedToken token = validToken("test@example.com")
+                .withProfile(Instant.now().minusSeconds(60), profile("test@example.com", "John", "Doe"));
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+        user.setFirstName("Jane");
+        user.setLastName("Doe");
+        user.setStatus(Status.ACTIVE);
+        when(authService.verifyToken(fakeToken)).thenReturn(token);
+        when(authService.isProfileCurrent(token)).thenReturn(false);
+        when(authService.findByEmailOnPrimary("test@example.com")).thenReturn(Optional.of(user));
+        when(authService.generateAccessToken(user)).thenReturn("new-access-token");
+
+        mockMvc.perform(get("/api/auth/me")
+                        .cookie(new jakarta.servlet.http.Cookie("access_token", fakeToken)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstname").value("Jane"))
+                .andExpect(cookie().value("access_token", "new-access-token"));
+
+        verify(authService, never()).getProfile(any());
+        verify(authService, never()).findByEmail(any());
+    }
+
+    @Test
+    void me_unknownUser_shouldReturn404() throws Exception {
+        when(authService.verifyToken(fakeToken)).thenReturn(validToken("gone@example.com"));
+        when(authService.getProfile("gone@example.com")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/auth/me")
+                        .cookie(new jakarta.servlet.http.Cookie("access_token", fakeToken)))
+                .andExpect(status().isNotFound());
+    }
+
+    private UserProfileResponse profile(String email, String firstName, String lastName) {
+        return new UserProfileResponse(1L, email, firstName, lastName, "ACTIVE", null, null, List.of("USER"), 3L);
+    }
+
+    private VerifiedToken validToken(String email) {
+        return VerifiedToken.valid(email, List.of("USER"), Instant.now().plusSeconds(900));
     }
 }
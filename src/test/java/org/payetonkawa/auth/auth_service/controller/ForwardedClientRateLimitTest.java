@@ -0,0 +1,48 @@
+package org.payetonkawa.auth.auth_service.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Limitation de débit par IP derrière un proxy, sur un vrai Tomcat : {@code server.forward-headers-strategy=native}
+ * est appliqué par la valve Tomcat, que MockMvc ne traverse pas. Les requêtes du test partent de 127.0.0.1,
+ * proxy interne de confiance.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "auth.login.rate-limit.ip.capacity=2",
+        "auth.login.rate-limit.account.capacity=100"
+})
+@ActiveProfiles("test")
+class ForwardedClientRateLimitTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void clientsBehindTheProxy_shouldGetSeparateIpBuckets() {
+        assertEquals(HttpStatus.BAD_REQUEST, login("203.0.113.1"));
+        assertEquals(HttpStatus.BAD_REQUEST, login("203.0.113.1"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, login("203.0.113.1"));
+
+        // Même proxy, autre client : son propre compteur
+        assertEquals(HttpStatus.BAD_REQUEST, login("203.0.113.2"));
+    }
+
+    private HttpStatus login(String clientIp) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", clientIp);
+        String body = "{\"email\":\"nobody@example.com\",\"password\":\"wrong\"}";
+        return HttpStatus.valueOf(restTemplate.postForEntity("/api/auth/login", new HttpEntity<>(body, headers), String.class)
+                .getStatusCode().value());
+    }
+}
@@ -0,0 +1,67 @@
+package org.payetonkawa.auth.auth_service.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.payetonkawa.auth.auth_service.security.SigningKeyRing;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class JwksControllerTest {
+
+    private MockMvc mockMvc;
+
+    private final SigningKeyRing.JsonWebKeySet jwks = new SigningKeyRing.JsonWebKeySet(
+            "{\"keys\":[]}".getBytes(StandardCharsets.UTF_8), "\"abc\"");
+
+    @BeforeEach
+    void setup() {
+        SigningKeyRing keyRing = Mockito.mock(SigningKeyRing.class);
+        Mockito.when(keyRing.jwks()).thenReturn(jwks);
+
+        JwksController controller = new JwksController(keyRing, Duration.ofMinutes(5));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .build(); // Pas de CSRF ici, pas de filtres de sécurité.
+    }
+
+    @Test
+    void getJwks_shouldReturnKeysWithCacheHeaders() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, public"))
+                .andExpect(content().string("{\"keys\":[]}"));
+    }
+
+    @Test
+    void getJwks_matchingEtag_shouldReturn304() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json").header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getJwks_weakEtagInList_shouldReturn304() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json").header(HttpHeaders.IF_NONE_MATCH, "\"old\", W/\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, public"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getJwks_nonMatchingEtags_shouldReturnKeys() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json").header(HttpHeaders.IF_NONE_MATCH, "\"old\", W/\"older\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"keys\":[]}"));
+    }
+}
@@ -0,0 +1,181 @@
+package org.payetonkawa.auth.auth_service.controller;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.model.User;
+import org.payetonkawa.auth.auth_service.repository.RoleRepository;
+import org.payetonkawa.auth.auth_service.repository.UserRepository;
+import org.payetonkawa.auth.auth_service.service.UserExportService;
+import org.payetonkawa.auth.auth_service.service.UserFileFormat;
+import org.payetonkawa.auth.auth_service.support.SqlStatementCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Nombre de requêtes SQL par appel HTTP sur les chemins chauds : un retour du N+1 fait échouer ce test.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "org.payetonkawa.auth.auth_service.support.SqlStatementCounter",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=10"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryCountIntegrationTest {
+
+    private static final String PASSWORD = "Secret123!";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @BeforeEach
+    void setUp() {
+        if (userRepository.findByEmail("admin@example.com").isPresent()) {
+            return;
+        }
+        Role userRole = roleRepository.findByName("USER").orElseThrow();
+        Role adminRole = roleRepository.findByName("ADMIN").orElseThrow();
+        createUser("admin@example.com", Set.of(userRole, adminRole));
+        for (int i = 0; i < 20; i++) {
+            createUser("user" + i + "@example.com", Set.of(userRole));
+        }
+    }
+
+    @Test
+    void login_shouldIssueAtMostOneQuery() throws Exception {
+        SqlStatementCounter.reset();
+
+        login("user1@example.com");
+
+        assertQueries(1);
+    }
+
+    @Test
+    void me_shouldIssueAtMostOneQuery() throws Exception {
+        Cookie accessToken = login("user2@example.com");
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(get("/api/auth/me").cookie(accessToken))
+                .andExpect(status().isOk());
+
+        assertQueries(1);
+    }
+
+    @Test
+    void me_repeated_shouldBeServedFromProfileCache() throws Exception {
+        Cookie accessToken = login("user3@example.com");
+        mockMvc.perform(get("/api/auth/me").cookie(accessToken))
+                .andExpect(status().isOk());
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(get("/api/auth/me").cookie(accessToken))
+                .andExpect(status().isOk());
+
+        assertQueries(0);
+    }
+
+    @Test
+    void userListing_shouldNotDependOnPageSize() throws Exception {
+        Cookie accessToken = login("admin@example.com");
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(get("/api/auth/users").param("size", "20").cookie(accessToken))
+                .andExpect(status().isOk());
+
+        // Une requête pour les lignes, une pour les rôles de la page
+        assertQueries(2);
+    }
+
+    @Test
+    void userImport_shouldBatchInserts() throws Exception {
+        Cookie accessToken = login("admin@example.com");
+        StringBuilder csv = new StringBuilder("email,password,firstName,lastName\n");
+        for (int i = 0; i < 25; i++) {
+            csv.append("imported").append(i).append("@example.com,").append(PASSWORD).append(",First,Last\n");
+        }
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(post("/api/auth/users/import")
+                        .contentType("text/csv")
+                        .content(csv.toString())
+                        .cookie(accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(25));
+
+        // Lots JDBC de 10 : 3 préparations de l'INSERT pour 25 lignes, au lieu d'une par ligne
+        long userInserts = SqlStatementCounter.statements().stream()
+                .filter(sql -> sql.startsWith("insert into users "))
+                .count();
+        assertTrue(userInserts <= 3, "Expected batched inserts but got " + userInserts + ": "
+                + SqlStatementCounter.statements());
+    }
+
+    @Test
+    void userExport_shouldUseSingleCursorQuery() throws Exception {
+        // Appel direct : le compteur est par thread, et la réponse en flux s'écrit sur un thread asynchrone
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        SqlStatementCounter.reset();
+
+        long exported = userExportService.export(output, UserFileFormat.NDJSON);
+
+        assertTrue(exported >= 21);
+        assertEquals(exported, output.toString(StandardCharsets.UTF_8).lines().count());
+        // Une seule requête (utilisateurs et rôles joints), quel que soit le nombre d'utilisateurs
+        assertQueries(1);
+    }
+
+    private void createUser(String email, Set<Role> roles) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode(PASSWORD));
+        user.setRoles(roles);
+        userRepository.save(user);
+    }
+
+    private Cookie login(String email) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        return result.getResponse().getCookie("access_token");
+    }
+
+    private static void assertQueries(int max) {
+        int count = SqlStatementCounter.count();
+        assertTrue(count <= max, "Expected at most " + max + " SQL statements but got " + count + ": "
+                + SqlStatementCounter.statements());
+    }
+}
@@ -0,0 +1,41 @@
+package org.payetonkawa.auth.auth_service.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.service.AuthService;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TokenControllerTest {
+
+    private AuthService authService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        authService = mock(AuthService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new TokenController(authService)).build();
+    }
+
+    @Test
+    void revoke_shouldReturn204() throws Exception {
+        mockMvc.perform(delete("/api/auth/tokens/jti-1"))
+                .andExpect(status().isNoContent());
+
+        verify(authService).revokeTokenId("jti-1");
+    }
+
+    @Test
+    void revoke_invalidJti_shouldReturn400() throws Exception {
+        mockMvc.perform(delete("/api/auth/tokens/" + "a".repeat(65)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/auth/tokens/{jti}", "jti 1;"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(authService);
+    }
+}
@@ -3,21 +3,36 @@ package org.payetonkawa.auth.auth_service.controller;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.payetonkawa.auth.auth_service.dto.UserFilter;
+import org.payetonkawa.auth.auth_service.dto.UserPage;
+import org.payetonkawa.auth.auth_service.model.Status;
 import org.payetonkawa.auth.auth_service.model.User;
+import org.payetonkawa.auth.auth_service.dto.UserImportReport;
+import org.payetonkawa.auth.auth_service.service.UserExportService;
+import org.payetonkawa.auth.auth_service.service.UserFileFormat;
+import org.payetonkawa.auth.auth_service.service.UserImportService;
 import org.payetonkawa.auth.auth_service.service.UserService;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
@@ -30,21 +45,76 @@ class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserImportService userImportService;
+
+    @MockBean
+    private UserExportService userExportService;
+
     @BeforeEach
     void setup() {
-        UserController controller = new UserController(userService);
+        UserController controller = new UserController(userService, userImportService, userExportService);
         mockMvc = MockMvcBuilders.standaloneSetup(controller)
                 .build(); // Pas de CSRF ici, pas de filtres de sécurité.
     }
 
     @Test
     void getAll_shouldReturn200() throws Exception {
-        Mockito.when(userService.findAll()).thenReturn(List.of(new User()));
+        Mockito.when(userService.findPage(UserFilter.NONE, null, null, null, null, false))
+                .thenReturn(new UserPage(List.of(), null, null));
         mockMvc.perform(get("/api/auth/users"))
                 .andDo(print())
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAll_shouldExposeCursorAndEstimateHeaders() throws Exception {
+        Mockito.when(userService.findPage(UserFilter.NONE, 20, "abc", "email", "desc", true))
+                .thenReturn(new UserPage(List.of(), "next", 1234L));
+        mockMvc.perform(get("/api/auth/users")
+                        .param("size", "20")
+                        .param("after", "abc")
+                        .param("sort", "email")
+                        .param("direction", "desc")
+                        .param("includeTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(header().string("X-Total-Estimate", "1234"));
+    }
+
+    @Test
+    void getAll_invalidSort_shouldReturn400() throws Exception {
+        Mockito.when(userService.findPage(any(), any(), any(), any(), any(), anyBoolean()))
+                .thenThrow(new IllegalArgumentException("Unsupported sort: password"));
+        mockMvc.perform(get("/api/auth/users").param("sort", "password"))
+                .andExpect(status().isBadRequest());
+    }
+
+
+    @Test
+    void getAll_shouldBindFilters() throws Exception {
+        UserFilter filter = new UserFilter("jo", "dupont", Status.INACTIVE, "admin",
+                LocalDateTime.of(2024, 1, 1, 0, 0), null, null, LocalDateTime.of(2024, 6, 1, 12, 30));
+        Mockito.when(userService.findPage(filter, null, null, null, null, false))
+                .thenReturn(new UserPage(List.of(), null, null));
+
+        mockMvc.perform(get("/api/auth/users")
+                        .param("email", "jo")
+                        .param("name", "dupont")
+                        .param("status", "INACTIVE")
+                        .param("role", "admin")
+                        .param("createdFrom", "2024-01-01T00:00:00")
+                        .param("lastLoginTo", "2024-06-01T12:30:00"))
+                .andExpect(status().isOk());
+
+        Mockito.verify(userService).findPage(filter, null, null, null, null, false);
+    }
+
+    @Test
+    void getAll_unknownStatus_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/auth/users").param("status", "SLEEPING"))
+                .andExpect(status().isBadRequest());
+    }
 
     @Test
     void getById_shouldReturn200() throws Exception {
@@ -53,4 +123,91 @@ class UserControllerTest {
                 .andDo(print())
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void getById_shouldReturnETag_andAnswer304WhenItMatches() throws Exception {
+        User user = new User();
+        user.setId(1L);
+        Mockito.when(userService.findById(1L)).thenReturn(Optional.of(user));
+        Mockito.when(userService.entityTag(user)).thenReturn("u3");
+
+        mockMvc.perform(get("/api/auth/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"u3\""))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+
+        mockMvc.perform(get("/api/auth/users/1").header("If-None-Match", "\"u3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getById_cachedTagMatches_shouldAnswer304WithoutLoadingUser() throws Exception {
+        Mockito.when(userService.cachedTag(1L)).thenReturn(Optional.of("u3"));
+
+        mockMvc.perform(get("/api/auth/users/1").header("If-None-Match", "\"u2\", W/\"u3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"u3\""));
+
+        Mockito.verify(userService, Mockito.never()).findById(any());
+    }
+
+    @Test
+    void getById_cachedTagDiffers_shouldLoadUser() throws Exception {
+        User user = new User();
+        user.setId(1L);
+        Mockito.when(userService.cachedTag(1L)).thenReturn(Optional.of("u4"));
+        Mockito.when(userService.findById(1L)).thenReturn(Optional.of(user));
+        Mockito.when(userService.entityTag(user)).thenReturn("u4");
+
+        mockMvc.perform(get("/api/auth/users/1").header("If-None-Match", "\"u3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"u4\""));
+    }
+
+    @Test
+    void importUsers_csv_shouldReturnReport() throws Exception {
+        Mockito.when(userImportService.importUsers(any(), Mockito.eq(UserFileFormat.CSV)))
+                .thenReturn(new UserImportReport(2, 1,
+                        List.of(new UserImportReport.RowError(3, "dup@example.com", "Email already exists")), false));
+        mockMvc.perform(post("/api/auth/users/import")
+                        .contentType("text/csv")
+                        .content("email,password\na@example.com,x\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+    }
+
+    @Test
+    void importUsers_ndjson_shouldUseJsonFormat() throws Exception {
+        Mockito.when(userImportService.importUsers(any(), Mockito.eq(UserFileFormat.NDJSON)))
+                .thenReturn(new UserImportReport(1, 0, List.of(), false));
+        mockMvc.perform(post("/api/auth/users/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"email\":\"a@example.com\",\"password\":\"x\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+    }
+
+    @Test
+    void export_shouldStreamRequestedFormat() throws Exception {
+        Mockito.when(userExportService.export(any(), Mockito.eq(UserFileFormat.CSV))).thenAnswer(inv -> {
+            inv.<OutputStream>getArgument(0).write("id,email\n1,a@example.com\n".getBytes());
+            return 1L;
+        });
+        MvcResult result = mockMvc.perform(get("/api/auth/users/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"users.csv\""))
+                .andExpect(content().string("id,email\n1,a@example.com\n"));
+    }
+
+    @Test
+    void export_unknownFormat_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/auth/users/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,163 @@
+package org.payetonkawa.auth.auth_service.init;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.payetonkawa.auth.auth_service.config.StartupReport;
+import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.model.Status;
+import org.payetonkawa.auth.auth_service.model.User;
+import org.payetonkawa.auth.auth_service.repository.RoleRepository;
+import org.payetonkawa.auth.auth_service.repository.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReferenceDataInitializerTest {
+
+    @Mock private RoleRepository roleRepo;
+    @Mock private UserRepository userRepo;
+    @Mock private PasswordEncoder passwordEncoder;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private final StartupReport startupReport = new StartupReport(new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(roleRepo.findByNameIn(any())).thenReturn(List.of(new Role("USER"), new Role("ADMIN")));
+    }
+
+    private ReferenceDataInitializer initializer(String email, String password) {
+        return new ReferenceDataInitializer(roleRepo, userRepo, passwordEncoder, transactionTemplate,
+                startupReport, email, password, false, Duration.ZERO);
+    }
+
+    @Test
+    void shouldCreateMissingRolesInOneBatch() {
+        when(roleRepo.findByNameIn(any())).thenReturn(List.of(new Role("ADMIN")));
+
+        initializer("", "").run();
+
+        verify(roleRepo).saveAll(argThat(roles -> {
+            List<Role> created = (List<Role>) roles;
+            return created.size() == 1 && "USER".equals(created.get(0).getName());
+        }));
+        verify(roleRepo, never()).findByName(any());
+        verifyNoInteractions(userRepo);
+        assertTrue(startupReport.phases().containsKey("bootstrap"));
+    }
+
+    @Test
+    void shouldSkipAdminIfEmailIsBlank() {
+        initializer("", "password").run();
+
+        verify(roleRepo, never()).saveAll(any());
+        verifyNoInteractions(userRepo);
+    }
+
+    @Test
+    void shouldCreateAdminWithTempPasswordAndMissingRole() {
+        when(roleRepo.findByNameIn(any())).thenReturn(List.of());
+        when(userRepo.findByEmail("admin@example.com")).thenReturn(Optional.empty());
+        when(passwordEncoder.encode(anyString())).thenReturn("encoded-password");
+
+        initializer("admin@example.com", "").run();
+
+        verify(roleRepo).saveAll(argThat(roles -> ((List<Role>) roles).size() == 2));
+        verify(userRepo).save(argThat(user ->
+                user.getEmail().equals("admin@example.com") &&
+                        user.getFirstName().equals("Admin") &&
+                        user.getLastName().equals("Account") &&
+                        user.getStatus() == Status.ACTIVE &&
+                        user.getRoles().stream().anyMatch(role -> "ADMIN".equals(role.getName()))
+        ));
+    }
+
+    @Test
+    void upsert_shouldReturnGeneratedPasswordOnlyWhenNotProvided() {
+        when(userRepo.findByEmail(anyString())).thenReturn(Optional.empty());
+
+        assertNotNull(initializer("admin@example.com", "").upsert());
+        assertNull(initializer("admin@example.com", "mySecretPassword").upsert());
+        verify(passwordEncoder).encode("mySecretPassword");
+    }
+
+    @Test
+    void shouldCreateAdminWithCustomPasswordAndExistingRole() {
+        when(userRepo.findByEmail("admin@example.com")).thenReturn(Optional.empty());
+        when(passwordEncoder.encode("mySecretPassword")).thenReturn("encoded-password");
+
+        initializer("admin@example.com", "mySecretPassword").run();
+
+        verify(roleRepo, never()).saveAll(any());
+        verify(userRepo).save(any(User.class));
+    }
+
+    @Test
+    void shouldDoNothingIfAdminAlreadyExists() {
+        when(userRepo.findByEmail("admin@example.com")).thenReturn(Optional.of(mock(User.class)));
+
+        initializer("admin@example.com", "password").run();
+
+        verify(userRepo, never()).save(any());
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    void concurrentCreation_shouldRetryOnce() {
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .doAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+
+        initializer("", "").run();
+
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(roleRepo, never()).saveAll(any());
+    }
+
+    @Test
+    void shouldLogErrorIfExceptionOccurs() {
+        when(roleRepo.findByNameIn(any())).thenThrow(new RuntimeException("DB error"));
+
+        ReferenceDataInitializer initializer = initializer("admin@example.com", "password");
+
+        assertFalse(assertDoesNotThrow(initializer::run));
+        assertFalse(initializer.isDone());
+    }
+
+    @Test
+    void failure_shouldBeRetriedUntilReferenceDataExist() {
+        when(roleRepo.findByNameIn(any()))
+                .thenThrow(new RuntimeException("DB error"))
+                .thenReturn(List.of(new Role("USER"), new Role("ADMIN")));
+        ReferenceDataInitializer initializer = initializer("", "");
+
+        initializer.runUntilDone();
+
+        assertTrue(initializer.isDone());
+        verify(roleRepo, times(2)).findByNameIn(any());
+    }
+
+    @Test
+    void healthIndicator_shouldBeOutOfServiceUntilReferenceDataExist() {
+        ReferenceDataInitializer initializer = initializer("", "");
+        ReferenceDataHealthIndicator indicator = new ReferenceDataHealthIndicator(initializer);
+
+        assertEquals(org.springframework.boot.actuate.health.Status.OUT_OF_SERVICE, indicator.health().getStatus());
+
+        initializer.run();
+
+        assertEquals(org.springframework.boot.actuate.health.Status.UP, indicator.health().getStatus());
+    }
+}
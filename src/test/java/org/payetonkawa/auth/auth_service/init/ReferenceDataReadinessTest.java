@@ -0,0 +1,34 @@
+package org.payetonkawa.auth.auth_service.init;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sonde readiness publique, incluant {@link ReferenceDataHealthIndicator} (données créées pendant le démarrage en test).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReferenceDataReadinessTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReferenceDataInitializer initializer;
+
+    @Test
+    void readiness_shouldBeUpOnceReferenceDataExist() throws Exception {
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+}
@@ -0,0 +1,87 @@
+package org.payetonkawa.auth.auth_service.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Schéma tenu par les migrations Flyway : le contexte ne démarre que si Hibernate valide le schéma migré
+ * contre les entités ({@code ddl-auto=validate}).
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class SchemaMigrationTest {
+
+    private static final List<String> INDEXES = List.of(
+            "IDX_USERS_CREATED_AT_ID", "IDX_USERS_NAME_KEY_ID", "IDX_USERS_STATUS_CREATED_AT_ID",
+            "IDX_USERS_LAST_LOGIN_ID", "IDX_USER_ROLES_USER_ID_ROLE_ID",
+            "IDX_REVOKED_TOKENS_REVOKED_AT", "IDX_REVOKED_TOKENS_EXPIRES_AT");
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrations_shouldAllBeAppliedAndCreateTheIndexes() {
+        assertEquals(0, flyway.info().pending().length);
+        assertTrue(flyway.info().applied().length >= 3);
+
+        assertTrue(indexes(jdbcTemplate).containsAll(INDEXES), () -> indexes(jdbcTemplate).toString());
+    }
+
+    @Test
+    void existingSchemaFromDdlAutoUpdate_shouldBeBaselinedAndCompleted() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+        // Schéma tel que ddl-auto=update l'avait créé : identifiants IDENTITY, ni version ni name_key
+        legacy.execute("""
+                create table users (id bigint generated by default as identity, created_at timestamp(6),
+                    last_login timestamp(6), email varchar(255) not null unique, first_name varchar(255),
+                    last_name varchar(255), password varchar(255) not null,
+                    status enum ('ACTIVE','INACTIVE') not null, primary key (id))""");
+        legacy.execute("create table role (id bigint generated by default as identity, name varchar(255) not null unique,"
+                + " primary key (id))");
+        legacy.execute("create table user_roles (user_id bigint not null references users, role_id bigint not null"
+                + " references role, primary key (user_id, role_id))");
+        legacy.update("insert into users (email, first_name, last_name, password, status)"
+                + " values ('emile@example.com', 'Émile', 'Zola', 'hash', 'ACTIVE')");
+        legacy.update("insert into users (email, password, status, created_at)"
+                + " values ('dated@example.com', 'hash', 'ACTIVE', timestamp '2024-01-01 00:00:00')");
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        assertEquals("zola emile", legacy.queryForObject(
+                "select name_key from users where email = 'emile@example.com'", String.class));
+        assertEquals(List.of(0L, 0L), legacy.queryForList("select version from users", Long.class));
+        // Date de création inconnue : remplie en tête du tri keyset (created_at, id), qui parcourt donc toutes les lignes
+        assertEquals(List.of("emile@example.com", "dated@example.com"),
+                legacy.queryForList("select email from users order by created_at, id", String.class));
+        assertThrows(DataIntegrityViolationException.class, () -> legacy.update(
+                "insert into users (id, email, password, status) values (100, 'new@example.com', 'hash', 'ACTIVE')"));
+        assertEquals(0, legacy.queryForObject("select count(*) from revoked_tokens", Integer.class));
+        assertTrue(indexes(legacy).containsAll(INDEXES), () -> indexes(legacy).toString());
+    }
+
+    private static List<String> indexes(JdbcTemplate jdbc) {
+        return jdbc.queryForList("select index_name from information_schema.indexes where table_schema = 'PUBLIC'",
+                String.class);
+    }
+}
@@ -0,0 +1,161 @@
+package org.payetonkawa.auth.auth_service.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.dto.UserFilter;
+import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.model.Status;
+import org.payetonkawa.auth.auth_service.model.User;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.Keyset;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.SortKey;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.UserRoleRow;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.UserRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Role admin;
+
+    @BeforeEach
+    void setUp() {
+        admin = roleRepository.save(new Role("ADMIN"));
+        for (String name : List.of("delta", "alpha", "echo", "charlie", "bravo")) {
+            User user = new User();
+            user.setEmail(name + "@example.com");
+            user.setPassword("hash");
+            if (name.equals("alpha")) {
+                user.setRoles(Set.of(admin));
+            }
+            userRepository.save(user);
+        }
+    }
+
+    @Test
+    void findUserRows_shouldWalkAllPagesByEmail() {
+        List<String> emails = new ArrayList<>();
+        Keyset after = null;
+        List<UserRow> page;
+        do {
+            page = userRepository.findUserRows(UserFilter.NONE, SortKey.EMAIL, true, after, 2);
+            page.forEach(row -> emails.add(row.email()));
+            if (!page.isEmpty()) {
+                UserRow last = page.get(page.size() - 1);
+                after = new Keyset(last.email(), last.id());
+            }
+        } while (page.size() == 2);
+
+        assertEquals(List.of("alpha@example.com", "bravo@example.com", "charlie@example.com",
+                "delta@example.com", "echo@example.com"), emails);
+    }
+
+    @Test
+    void findUserRows_descendingById_shouldStartAfterCursor() {
+        List<UserRow> all = userRepository.findUserRows(UserFilter.NONE, SortKey.ID, false, null, 10);
+        assertEquals(5, all.size());
+
+        Long pivot = all.get(1).id();
+        List<UserRow> rest = userRepository.findUserRows(
+                UserFilter.NONE, SortKey.ID, false, new Keyset(pivot, pivot), 10);
+
+        assertEquals(all.subList(2, 5), rest);
+    }
+
+    @Test
+    void findRoleRows_shouldReturnRolesOfRequestedUsersOnly() {
+        List<UserRow> rows = userRepository.findUserRows(UserFilter.NONE, SortKey.EMAIL, true, null, 2);
+
+        List<UserRoleRow> roles = userRepository.findRoleRows(rows.stream().map(UserRow::id).toList());
+
+        assertEquals(List.of(new UserRoleRow(rows.get(0).id(), admin.getId(), "ADMIN")), roles);
+        assertEquals(5, userRepository.estimateUserCount());
+    }
+
+    @Test
+    void findUserRows_shouldApplyEveryFilter() {
+        User alpha = userRepository.findByEmail("alpha@example.com").orElseThrow();
+        alpha.setLastName("Dupont-Hélène");
+        alpha.setFirstName("Zoé");
+        User bravo = userRepository.findByEmail("bravo@example.com").orElseThrow();
+        bravo.setLastName("Dupond");
+        bravo.setStatus(Status.INACTIVE);
+        userRepository.flush();
+
+        assertEquals(List.of("alpha@example.com", "bravo@example.com"), emails(filter("dupon", null, null)));
+        assertEquals(List.of("alpha@example.com"), emails(filter("DUPONT-HELENE zo", null, null)));
+        assertEquals(List.of("bravo@example.com"), emails(filter("dupon", Status.INACTIVE, null)));
+        assertEquals(List.of("alpha@example.com"), emails(filter(null, null, "admin")));
+        assertEquals(List.of("echo@example.com"), emails(new UserFilter("e", null, null, null, null, null, null, null)));
+        assertTrue(emails(new UserFilter("%", null, null, null, null, null, null, null)).isEmpty());
+        assertEquals(1, userRepository.countUsers(filter("dupon", null, "ADMIN")));
+    }
+
+    @Test
+    void findUserRows_shouldFilterOnPeriods() {
+        User charlie = userRepository.findByEmail("charlie@example.com").orElseThrow();
+        LocalDateTime createdAt = charlie.getCreatedAt();
+
+        UserFilter createdFromCharlie = new UserFilter(null, null, null, null, createdAt, null, null, null);
+        UserFilter createdBeforeCharlie = new UserFilter(null, null, null, null, null, createdAt, null, null);
+        UserFilter loggedIn = new UserFilter(null, null, null, null, null, null, LocalDateTime.of(2000, 1, 1, 0, 0), null);
+
+        assertTrue(emails(createdFromCharlie).contains("charlie@example.com"));
+        assertFalse(emails(createdBeforeCharlie).contains("charlie@example.com"));
+        assertTrue(emails(loggedIn).isEmpty());
+    }
+
+    private static UserFilter filter(String name, Status status, String role) {
+        return new UserFilter(null, name, status, role, null, null, null, null);
+    }
+
+    private List<String> emails(UserFilter filter) {
+        return userRepository.findUserRows(filter, SortKey.EMAIL, true, null, 10).stream()
+                .map(UserRow::email)
+                .toList();
+    }
+
+    @Test
+    void incrementVersionForRole_shouldBumpHoldersOnly() {
+        Long alphaVersion = userRepository.findByEmail("alpha@example.com").orElseThrow().getVersion();
+        Long bravoVersion = userRepository.findByEmail("bravo@example.com").orElseThrow().getVersion();
+
+        assertEquals(1, userRepository.incrementVersionForRole(admin.getId()));
+        entityManager.clear();
+
+        assertEquals(alphaVersion + 1, userRepository.findByEmail("alpha@example.com").orElseThrow().getVersion());
+        assertEquals(bravoVersion, userRepository.findByEmail("bravo@example.com").orElseThrow().getVersion());
+    }
+
+    @Test
+    void detachedUser_equalsHashCodeAndToString_shouldNotTouchLazyRoles() {
+        Long id = userRepository.findByEmail("alpha@example.com").orElseThrow().getId();
+        entityManager.clear();
+        User detached = entityManager.find(User.class, id);
+        entityManager.clear();
+
+        assertDoesNotThrow(() -> detached.toString());
+        assertDoesNotThrow(() -> detached.hashCode());
+        assertEquals(detached, entityManager.find(User.class, id));
+        assertFalse(detached.toString().contains("hash"));
+    }
+}
@@ -0,0 +1,147 @@
+package org.payetonkawa.auth.auth_service.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.dto.UserFilter;
+import org.payetonkawa.auth.auth_service.model.Status;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.SortKey;
+import org.payetonkawa.auth.auth_service.support.SqlStatementCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plans d'exécution des filtres du listing admin sur un volume réaliste (H2, statistiques calculées) :
+ * chaque filtre doit passer par son index, et non par un parcours de la table ou de la clé primaire.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "org.payetonkawa.auth.auth_service.support.SqlStatementCounter",
+        // Valeurs en littéraux dans le SQL capturé : EXPLAIN les voit comme le planificateur à l'exécution
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline"
+})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserSearchPlanTest {
+
+    private static final int USERS = 20_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        if (userRepository.count() > 0) {
+            return;
+        }
+        // 20 000 utilisateurs créés sur deux ans et demi, 10 % inactifs, un tiers jamais connectés, 1 % d'admins
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            execute("insert into role (id, name, version) values (1, 'USER', 0), (2, 'ADMIN', 0)");
+            execute("""
+                    insert into users (id, email, first_name, last_name, name_key, password, status,
+                                       created_at, last_login, version)
+                    select x, 'user' || x || '@example.com', 'First' || mod(x, 500), 'Last' || mod(x, 997),
+                           'last' || mod(x, 997) || ' first' || mod(x, 500), 'hash',
+                           case when mod(x, 10) = 0 then 'INACTIVE' else 'ACTIVE' end,
+                           timestamp '2023-01-01 00:00:00' + x * interval '1' hour,
+                           case when mod(x, 3) = 0 then null
+                                else timestamp '2025-01-01 00:00:00' + x * interval '7' minute end,
+                           0
+                    from system_range(1, %d)""".formatted(USERS));
+            execute("""
+                    insert into user_roles (user_id, role_id)
+                    select x, case when mod(x, 100) = 0 then 2 else 1 end from system_range(1, %d)""".formatted(USERS));
+        });
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> execute("analyze"));
+    }
+
+    @Test
+    void emailPrefix_shouldUseEmailIndex() {
+        String plan = plan(new UserFilter("user123", null, null, null, null, null, null, null), SortKey.EMAIL);
+
+        // Index de la contrainte unique, nommé d'après elle par H2 (UK_USERS_EMAIL_INDEX_x)
+        assertUsesIndex(plan, "UK_USERS_EMAIL");
+        assertTrue(plan.contains("EMAIL >= 'user123'"), plan);
+    }
+
+    @Test
+    void namePrefix_shouldUseNameKeyIndex() {
+        String plan = plan(new UserFilter(null, "Last42 First4", null, null, null, null, null, null), SortKey.ID);
+
+        assertUsesIndex(plan, "IDX_USERS_NAME_KEY_ID");
+        assertTrue(plan.contains("NAME_KEY >= 'last42 first4'"), plan);
+    }
+
+    @Test
+    void statusAndCreationPeriod_shouldUseCompositeIndex() {
+        String plan = plan(new UserFilter(null, null, Status.INACTIVE, null,
+                LocalDateTime.of(2024, 6, 1, 0, 0), LocalDateTime.of(2024, 7, 1, 0, 0), null, null), SortKey.CREATED_AT);
+
+        assertUsesIndex(plan, "IDX_USERS_STATUS_CREATED_AT_ID");
+    }
+
+    @Test
+    void lastLoginPeriod_shouldUseLastLoginIndex() {
+        String plan = plan(new UserFilter(null, null, null, null, null, null,
+                LocalDateTime.of(2025, 2, 1, 0, 0), LocalDateTime.of(2025, 2, 2, 0, 0)), SortKey.ID);
+
+        assertUsesIndex(plan, "IDX_USERS_LAST_LOGIN_ID");
+    }
+
+    @Test
+    void role_shouldStartFromRoleThroughUserRolesPrimaryKey() {
+        String plan = plan(new UserFilter(null, null, null, "admin", null, null, null, null), SortKey.ID);
+
+        assertTrue(plan.startsWith("SELECT") && plan.contains("FROM \"PUBLIC\".\"ROLE\""), plan);
+        assertTrue(plan.contains("ROLE_ID = R1_1.ID"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+        assertEquals(200, userRepository.countUsers(new UserFilter(null, null, null, "admin", null, null, null, null)));
+    }
+
+    @Test
+    void rolesOfAPage_shouldUseUserIdIndex() {
+        SqlStatementCounter.reset();
+        assertEquals(3, userRepository.findRoleRows(List.of(1L, 2L, 100L)).size());
+
+        assertUsesIndex(explain(SqlStatementCounter.statements()), "IDX_USER_ROLES_USER_ID_ROLE_ID");
+    }
+
+    private String plan(UserFilter filter, SortKey sort) {
+        SqlStatementCounter.reset();
+        assertFalse(userRepository.findUserRows(filter, sort, true, null, 50).isEmpty());
+        return explain(SqlStatementCounter.statements());
+    }
+
+    private String explain(List<String> statements) {
+        assertEquals(1, statements.size(), statements::toString);
+        // Seule la limite reste en paramètre JDBC
+        String sql = statements.get(0).replace("fetch first ? rows only", "fetch first 50 rows only");
+        return new TransactionTemplate(transactionManager).execute(status ->
+                (String) entityManager.createNativeQuery("explain " + sql).getSingleResult());
+    }
+
+    private static void assertUsesIndex(String plan, String index) {
+        assertTrue(plan.contains("PUBLIC." + index), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    private void execute(String sql) {
+        entityManager.createNativeQuery(sql).executeUpdate();
+    }
+}
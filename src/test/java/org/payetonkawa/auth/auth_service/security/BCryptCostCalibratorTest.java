@@ -0,0 +1,27 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BCryptCostCalibratorTest {
+
+    @Test
+    void costFor_targetFourTimesSlower_shouldAddTwo() {
+        assertEquals(12, BCryptCostCalibrator.costFor(Duration.ofMillis(100), Duration.ofMillis(25)));
+    }
+
+    @Test
+    void costFor_fastTarget_shouldNeverGoBelowDefault() {
+        assertEquals(BCryptCostCalibrator.MIN_COST,
+                BCryptCostCalibrator.costFor(Duration.ofMillis(1), Duration.ofMillis(80)));
+    }
+
+    @Test
+    void costFor_hugeTarget_shouldBeCapped() {
+        assertEquals(BCryptCostCalibrator.MAX_COST,
+                BCryptCostCalibrator.costFor(Duration.ofMinutes(10), Duration.ofMillis(50)));
+    }
+}
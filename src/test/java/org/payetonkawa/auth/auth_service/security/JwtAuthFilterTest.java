@@ -1,7 +1,6 @@
 package org.payetonkawa.auth.auth_service.security;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.impl.DefaultClaims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -9,9 +8,11 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.repository.RoleRepository;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,6 +21,8 @@ import static org.mockito.Mockito.*;
 class JwtAuthFilterTest {
 
     private JwtService jwtService;
+    private VerifiedTokenCache tokenCache;
+    private TokenDenylist denylist;
     private JwtAuthFilter filter;
     private HttpServletRequest request;
     private HttpServletResponse response;
@@ -28,7 +31,10 @@ class JwtAuthFilterTest {
     @BeforeEach
     void setUp() {
         jwtService = mock(JwtService.class);
-        filter = new JwtAuthFilter(jwtService);
+        tokenCache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+        denylist = mock(TokenDenylist.class);
+        filter = new JwtAuthFilter(jwtService, tokenCache, denylist,
+                new RoleCodebook(mock(RoleRepository.class)));
 
         request = mock(HttpServletRequest.class);
         response = mock(HttpServletResponse.class);
@@ -41,13 +47,9 @@ class JwtAuthFilterTest {
     void doFilterInternal_validToken_shouldSetAuthentication() throws ServletException, IOException {
         Cookie cookie = new Cookie("access_token", "validToken");
         when(request.getCookies()).thenReturn(new Cookie[]{cookie});
-        when(jwtService.validateToken("validToken")).thenReturn(true);
-
-        Claims claims = new DefaultClaims();
-        claims.setSubject("user@example.com");
-        claims.put("roles", List.of("USER", "ADMIN"));
-
-        when(jwtService.getAllClaimsFromToken("validToken")).thenReturn(claims);
+        VerifiedToken verified = VerifiedToken.valid("user@example.com", List.of("USER", "ADMIN"),
+                Instant.now().plusSeconds(60));
+        when(jwtService.verify("validToken")).thenReturn(verified);
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -57,18 +59,67 @@ class JwtAuthFilterTest {
         assertEquals(2,
                 SecurityContextHolder.getContext().getAuthentication().getAuthorities().size());
 
+        verify(request).setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verified);
         verify(filterChain).doFilter(request, response);
     }
 
+    @Test
+    void doFilterInternal_cachedToken_shouldSkipVerification() throws ServletException, IOException {
+        Cookie cookie = new Cookie("access_token", "validToken");
+        when(request.getCookies()).thenReturn(new Cookie[]{cookie});
+        when(jwtService.verify("validToken")).thenReturn(
+                VerifiedToken.valid("user@example.com", List.of("USER"), Instant.now().plusSeconds(60)));
+
+        filter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(request, response, filterChain);
+
+        assertEquals("user@example.com",
+                SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(jwtService, times(1)).verify("validToken");
+        assertEquals(1, tokenCache.size());
+    }
+
+    @Test
+    void doFilterInternal_revokedCachedToken_shouldNotAuthenticate() throws ServletException, IOException {
+        Cookie cookie = new Cookie("access_token", "validToken");
+        when(request.getCookies()).thenReturn(new Cookie[]{cookie});
+        when(jwtService.verify("validToken")).thenReturn(
+                VerifiedToken.valid("jti-1", "user@example.com", List.of("USER"), Instant.now().plusSeconds(60)));
+
+        filter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        when(denylist.isRevoked("jti-1")).thenReturn(true);
+        filter.doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(request).setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, VerifiedToken.failed(VerifiedToken.Failure.REVOKED));
+        verify(filterChain, times(2)).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_expiredClaims_shouldNotBeCached() throws ServletException, IOException {
+        Cookie cookie = new Cookie("access_token", "validToken");
+        when(request.getCookies()).thenReturn(new Cookie[]{cookie});
+        when(jwtService.verify("validToken")).thenReturn(
+                VerifiedToken.valid("user@example.com", List.of("USER"), Instant.now().minusSeconds(1)));
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        assertEquals(0, tokenCache.size());
+    }
+
     @Test
     void doFilterInternal_invalidToken_shouldNotSetAuthentication() throws ServletException, IOException {
         Cookie cookie = new Cookie("access_token", "invalidToken");
         when(request.getCookies()).thenReturn(new Cookie[]{cookie});
-        when(jwtService.validateToken("invalidToken")).thenReturn(false);
+        VerifiedToken rejected = VerifiedToken.failed(VerifiedToken.Failure.BAD_SIGNATURE);
+        when(jwtService.verify("invalidToken")).thenReturn(rejected);
 
         filter.doFilterInternal(request, response, filterChain);
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(request).setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, rejected);
         verify(filterChain).doFilter(request, response);
     }
 
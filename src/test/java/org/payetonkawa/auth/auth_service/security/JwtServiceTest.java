@@ -1,28 +1,42 @@
 package org.payetonkawa.auth.auth_service.security;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.dto.UserProfileResponse;
 import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.model.Status;
 import org.payetonkawa.auth.auth_service.model.User;
+import org.payetonkawa.auth.auth_service.repository.RoleRepository;
 
-import java.security.KeyFactory;
-import java.security.PrivateKey;
-import java.security.PublicKey;
-import java.security.spec.PKCS8EncodedKeySpec;
-import java.security.spec.X509EncodedKeySpec;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Base64;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class JwtServiceTest {
 
+    private SigningKeyRing keyRing;
     private JwtService jwtService;
+    private SimpleMeterRegistry meterRegistry;
+    private RoleRepository roleRepository;
+    private RoleCodebook roleCodebook;
     private User testUser;
 
     @BeforeEach
     void setUp() throws Exception {
-        jwtService = new JwtService();
 
         String privateKeyContent = "MIIEuwIBADANBgkqhkiG9w0BAQEFAASCBKUwggShAgEAAoIBAQCmsnEcLkpaecn5"
                 + "pZne0WQEVcI35SJUtQzWxJhjzD+qxE8qiXcsrNOOFiUjySXbpEfFgADhfWcV4/gm"
@@ -59,15 +73,18 @@ class JwtServiceTest {
                 + "CHmrxQ3YFWiYp3Pf1VI/Hr10mw3CRBZMHHrwoNWpfY3Ahm/liJckXpORXQb9Elli"
                 + "9wIDAQAB";
 
-        byte[] privateBytes = Base64.getDecoder().decode(privateKeyContent);
-        byte[] publicBytes = Base64.getDecoder().decode(publicKeyContent);
-
-        KeyFactory kf = KeyFactory.getInstance("RSA");
-        PrivateKey privateKey = kf.generatePrivate(new PKCS8EncodedKeySpec(privateBytes));
-        PublicKey publicKey = kf.generatePublic(new X509EncodedKeySpec(publicBytes));
+        keyRing = new SigningKeyRing(
+                pem("PRIVATE KEY", privateKeyContent),
+                pem("PUBLIC KEY", publicKeyContent),
+                "RS256",
+                7200000,
+                Duration.ZERO);
+        keyRing.loadKeys();
 
-        jwtService.privateKey = privateKey;
-        jwtService.publicKey = publicKey;
+        meterRegistry = new SimpleMeterRegistry();
+        roleRepository = mock(RoleRepository.class);
+        roleCodebook = new RoleCodebook(roleRepository);
+        jwtService = new JwtService(keyRing, roleCodebook, meterRegistry);
         jwtService.jwtExpirationMs = 3600000;
         jwtService.refreshExpirationMs = 7200000;
 
@@ -85,7 +102,7 @@ class JwtServiceTest {
 
         assertNotNull(token);
         assertTrue(jwtService.validateToken(token));
-        assertEquals("user@example.com", jwtService.getEmailFromToken(token));
+        assertEquals("user@example.com", jwtService.verify(token).subject());
     }
 
     @Test
@@ -94,11 +111,231 @@ class JwtServiceTest {
 
         assertNotNull(token);
         assertTrue(jwtService.validateToken(token));
-        assertEquals("user@example.com", jwtService.getEmailFromToken(token));
+        assertEquals("user@example.com", jwtService.verify(token).subject());
     }
 
     @Test
     void validateToken_invalidToken_shouldReturnFalse() {
         assertFalse(jwtService.validateToken("invalid.token.here"));
     }
+
+    @Test
+    void verify_shouldReturnClaimsInSinglePass() {
+        String token = jwtService.generateAccessToken(testUser);
+
+        VerifiedToken verified = jwtService.verify(token);
+
+        assertTrue(verified.isValid());
+        assertEquals(List.of("ROLE_USER"), verified.roles());
+        assertNotNull(verified.expiresAt());
+    }
+
+    @Test
+    void verify_expiredToken_shouldReportExpired() {
+        jwtService.jwtExpirationMs = -1000;
+        String token = jwtService.generateAccessToken(testUser);
+
+        assertEquals(VerifiedToken.Failure.EXPIRED, jwtService.verify(token).failure());
+    }
+
+    @Test
+    void verify_tamperedToken_shouldReportBadSignature() {
+        String token = jwtService.generateAccessToken(testUser);
+        String tampered = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+        assertEquals(VerifiedToken.Failure.BAD_SIGNATURE, jwtService.verify(tampered).failure());
+    }
+
+    @Test
+    void signAndVerify_shouldRecordTimersByTypeAndOutcome() {
+        String token = jwtService.generateAccessToken(testUser);
+        jwtService.verify(token);
+        jwtService.verify("not-a-jwt");
+
+        assertEquals(1, meterRegistry.get("jwt.sign").tag("type", "access").timer().count());
+        assertEquals(1, meterRegistry.get("jwt.verify").tag("outcome", "valid").timer().count());
+        assertEquals(1, meterRegistry.get("jwt.verify").tag("outcome", "malformed").timer().count());
+    }
+
+    @Test
+    void generatedTokens_shouldCarryDistinctJti() {
+        VerifiedToken first = jwtService.verify(jwtService.generateAccessToken(testUser));
+        VerifiedToken second = jwtService.verify(jwtService.generateAccessToken(testUser));
+
+        assertNotNull(first.tokenId());
+        assertNotEquals(first.tokenId(), second.tokenId());
+    }
+
+    @Test
+    void compactRoles_shouldEncodeMaskAndDecodeNames() {
+        Role user = new Role("USER");
+        user.setId(1L);
+        Role admin = new Role("ADMIN");
+        admin.setId(2L);
+        when(roleRepository.findAll()).thenReturn(List.of(user, admin));
+        testUser.setRoles(Set.of(user, admin));
+
+        String legacy = jwtService.generateAccessToken(testUser);
+        jwtService.compactRoles = true;
+        String compact = jwtService.generateAccessToken(testUser);
+
+        assertTrue(compact.length() < legacy.length());
+        assertEquals(List.of("USER", "ADMIN"), jwtService.verify(compact).roles());
+        // Les jetons émis avant le basculement restent lisibles
+        assertEquals(Set.of("USER", "ADMIN"), Set.copyOf(jwtService.verify(legacy).roles()));
+    }
+
+    @Test
+    void profileClaims_shouldCarryProfileInAccessTokenOnly() {
+        testUser.setId(42L);
+        testUser.setFirstName("Ada");
+        testUser.setLastName("Lovelace");
+        testUser.setStatus(Status.ACTIVE);
+        testUser.setCreatedAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        testUser.setVersion(7L);
+
+        assertNull(jwtService.verify(jwtService.generateAccessToken(testUser)).profile());
+
+        jwtService.profileClaims = true;
+        VerifiedToken verified = jwtService.verify(jwtService.generateAccessToken(testUser));
+
+        assertEquals(new UserProfileResponse(42L, "user@example.com", "Ada", "Lovelace", "ACTIVE",
+                LocalDateTime.of(2024, 1, 2, 3, 4, 5), null, List.of("ROLE_USER"), 7L), verified.profile());
+        assertNotNull(verified.issuedAt());
+        assertNull(jwtService.verify(jwtService.generateRefreshToken(testUser)).profile());
+    }
+
+    @Test
+    void verify_missingToken_shouldReportMissing() {
+        assertEquals(VerifiedToken.Failure.MISSING, jwtService.verify(null).failure());
+    }
+
+    @Test
+    void verify_tokenSignedBeforeRotation_shouldStillBeValid() throws Exception {
+        String oldToken = jwtService.generateAccessToken(testUser);
+        String oldKid = keyRing.active().kid();
+
+        keyRing.rotate();  // publie la clé suivante
+        keyRing.rotate();  // puis la rend active
+        String newToken = jwtService.generateAccessToken(testUser);
+
+        assertNotEquals(oldKid, keyRing.active().kid());
+        assertTrue(jwtService.verify(oldToken).isValid());
+        assertTrue(jwtService.verify(newToken).isValid());
+    }
+
+    @Test
+    void verify_es256Keys_shouldSignAndVerify() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair pair = generator.generateKeyPair();
+
+        SigningKeyRing ecRing = new SigningKeyRing(
+                pem("PRIVATE KEY", Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded())),
+                pem("PUBLIC KEY", Base64.getEncoder().encodeToString(pair.getPublic().getEncoded())),
+                "ES256",
+                7200000,
+                Duration.ZERO);
+        ecRing.loadKeys();
+        JwtService ecService = new JwtService(ecRing, roleCodebook, new SimpleMeterRegistry());
+        ecService.jwtExpirationMs = 3600000;
+
+        String token = ecService.generateAccessToken(testUser);
+
+        assertTrue(ecService.verify(token).isValid());
+        assertEquals(VerifiedToken.Failure.BAD_SIGNATURE, jwtService.verify(token).failure());
+    }
+
+    @Test
+    void verify_tokenSignedByAnotherInstance_shouldBeValidOnceItsKeyIsLoaded() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair pair = generator.generateKeyPair();
+        SigningKeyRing otherRing = new SigningKeyRing(
+                pem("PRIVATE KEY", Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded())),
+                pem("PUBLIC KEY", Base64.getEncoder().encodeToString(pair.getPublic().getEncoded())),
+                "RS256",
+                7200000,
+                Duration.ZERO);
+        otherRing.loadKeys();
+        JwtService otherService = new JwtService(otherRing, roleCodebook, new SimpleMeterRegistry());
+        otherService.jwtExpirationMs = 3600000;
+        String token = otherService.generateAccessToken(testUser);
+
+        assertFalse(jwtService.verify(token).isValid());
+
+        keyRing.replacePeerKeys(List.of(pair.getPublic()));
+
+        assertTrue(jwtService.verify(token).isValid());
+        assertTrue(new String(keyRing.jwks().body(), StandardCharsets.UTF_8).contains(otherRing.active().kid()));
+        // Les clés des autres instances ne servent jamais à signer
+        assertNotEquals(otherRing.active().kid(), kidOf(jwtService.generateAccessToken(testUser)));
+    }
+
+    @Test
+    void rotate_shouldPublishNextKeyBeforeSigningWithIt() throws Exception {
+        String activeKid = keyRing.active().kid();
+        String etag = keyRing.jwks().etag();
+
+        keyRing.rotate();
+
+        String nextKid = keyRing.next().kid();
+        assertEquals(activeKid, keyRing.active().kid());
+        assertTrue(new String(keyRing.jwks().body(), StandardCharsets.UTF_8).contains(nextKid));
+        assertNotEquals(etag, keyRing.jwks().etag());
+        assertEquals(activeKid, kidOf(jwtService.generateAccessToken(testUser)));
+
+        keyRing.rotate();
+
+        assertEquals(nextKid, keyRing.active().kid());
+        assertEquals(nextKid, kidOf(jwtService.generateAccessToken(testUser)));
+    }
+
+    @Test
+    void rotate_shouldKeepSigningWithActiveKeyUntilJwksMaxAgeHasElapsed() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair pair = generator.generateKeyPair();
+        SigningKeyRing ring = new SigningKeyRing(
+                pem("PRIVATE KEY", Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded())),
+                pem("PUBLIC KEY", Base64.getEncoder().encodeToString(pair.getPublic().getEncoded())),
+                "ES256",
+                7200000,
+                Duration.ofMinutes(5));
+        ring.loadKeys();
+        String activeKid = ring.active().kid();
+
+        ring.rotate();
+        String nextKid = ring.next().kid();
+        ring.rotate();
+
+        // Clé suivante publiée depuis moins d'un max-age : ni promue, ni remplacée
+        assertEquals(activeKid, ring.active().kid());
+        assertEquals(nextKid, ring.next().kid());
+    }
+
+    @Test
+    void jwks_shouldPublishRetiredKeysUntilRetention() throws Exception {
+        String firstKid = keyRing.active().kid();
+        String firstEtag = keyRing.jwks().etag();
+
+        keyRing.rotate();
+        keyRing.rotate();
+
+        String jwks = new String(keyRing.jwks().body(), StandardCharsets.UTF_8);
+        assertTrue(jwks.contains(firstKid));
+        assertTrue(jwks.contains(keyRing.active().kid()));
+        assertNotEquals(firstEtag, keyRing.jwks().etag());
+    }
+
+    private static String kidOf(String token) {
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))),
+                StandardCharsets.UTF_8);
+        return header.replaceAll(".*\"kid\":\"([^\"]+)\".*", "$1");
+    }
+
+    private static Resource pem(String type, String base64) {
+        String content = "-----BEGIN " + type + "-----\n" + base64 + "\n-----END " + type + "-----\n";
+        return new ByteArrayResource(content.getBytes(StandardCharsets.US_ASCII));
+    }
 }
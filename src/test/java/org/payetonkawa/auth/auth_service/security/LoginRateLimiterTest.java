@@ -0,0 +1,104 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // IP : 5 tentatives par minute ; compte : 3 tentatives par minute
+        limiter = new LoginRateLimiter(true, 5, Duration.ofMinutes(1), 3, Duration.ofMinutes(1), 1000, meterRegistry);
+    }
+
+    @Test
+    void account_shouldAllowBurstThenReject() {
+        for (int i = 0; i < 3; i++) {
+            limiter.check("10.0.0." + i, "victim@example.com", 0);
+        }
+
+        LoginRateLimitedException e = assertThrows(LoginRateLimitedException.class,
+                () -> limiter.check("10.0.0.9", "Victim@Example.com ", 0));
+        assertEquals(Duration.ofSeconds(20), e.getRetryAfter());
+        assertEquals(1, meterRegistry.get("auth.login.throttled").tag("key", "account").counter().count());
+    }
+
+    @Test
+    void bucket_shouldRefillOverTime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.check("10.0.0.1", "user@example.com", 0);
+        }
+        assertThrows(LoginRateLimitedException.class, () -> limiter.check("10.0.0.1", "user@example.com", 19 * SECOND));
+
+        // Un jeton toutes les 20 s
+        assertDoesNotThrow(() -> limiter.check("10.0.0.1", "user@example.com", 20 * SECOND));
+    }
+
+    @Test
+    void ip_shouldBeLimitedAcrossAccounts() {
+        for (int i = 0; i < 5; i++) {
+            limiter.check("203.0.113.7", "user" + i + "@example.com", 0);
+        }
+
+        assertThrows(LoginRateLimitedException.class, () -> limiter.check("203.0.113.7", "other@example.com", 0));
+        assertEquals(1, meterRegistry.get("auth.login.throttled").tag("key", "ip").counter().count());
+        // L'IP déjà limitée n'a pas consommé de jeton sur ce compte
+        assertDoesNotThrow(() -> limiter.check("198.51.100.1", "other@example.com", 0));
+    }
+
+    @Test
+    void disabled_shouldNeverReject() {
+        LoginRateLimiter disabled = new LoginRateLimiter(false, 1, Duration.ofMinutes(1), 1, Duration.ofMinutes(1),
+                1000, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 10; i++) {
+            disabled.check("10.0.0.1", "user@example.com", 0);
+        }
+    }
+
+    @Test
+    void bucket_concurrentAcquires_shouldNeverExceedCapacity() throws InterruptedException {
+        LoginRateLimiter.Bucket bucket = new LoginRateLimiter.Bucket();
+        long interval = SECOND;
+        long tolerance = 99 * SECOND;
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < 50; j++) {
+                    if (bucket.tryAcquire(0, interval, tolerance) == 0) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, accepted.get());
+    }
+}
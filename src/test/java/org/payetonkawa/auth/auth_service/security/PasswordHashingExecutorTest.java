@@ -0,0 +1,80 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new PasswordHashingExecutor(1, 1, Duration.ofMillis(500), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    void execute_shouldReturnTaskResult() {
+        assertEquals("hash", executor.execute(() -> "hash"));
+        assertEquals(1, meterRegistry.get("password.hashing.wait").timer().count());
+    }
+
+    @Test
+    void execute_queueFull_shouldRejectImmediately() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Occupe l'unique thread puis l'unique place de la file
+        CompletableFuture<Object> running = CompletableFuture.supplyAsync(() -> executor.execute(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> executor.execute(() -> "second"));
+        while (executor.queueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        PasswordHashingBusyException e = assertThrows(PasswordHashingBusyException.class,
+                () -> executor.execute(() -> "third"));
+        assertEquals(Duration.ofSeconds(1), e.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").tag("reason", "queue_full").counter().count());
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void execute_tooSlow_shouldTimeOut() {
+        assertThrows(PasswordHashingBusyException.class, () -> executor.execute(() -> {
+            await(new CountDownLatch(1));
+            return "never";
+        }));
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").tag("reason", "timeout").counter().count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.repository.RoleRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RoleCodebookTest {
+
+    private RoleRepository roleRepository;
+    private RoleCodebook codebook;
+
+    @BeforeEach
+    void setUp() {
+        roleRepository = mock(RoleRepository.class);
+        when(roleRepository.findAll()).thenReturn(List.of(role(1L, "USER"), role(2L, "ADMIN")));
+        codebook = new RoleCodebook(roleRepository);
+        codebook.refresh();
+    }
+
+    @Test
+    void encode_shouldSetOneBitPerRoleId() {
+        assertEquals(0b110, RoleCodebook.encode(Set.of(role(1L, "USER"), role(2L, "ADMIN"))));
+        assertEquals(-1, RoleCodebook.encode(Set.of(role(63L, "TOO_FAR"))));
+        assertEquals(-1, RoleCodebook.encode(Set.of(new Role("UNSAVED"))));
+    }
+
+    @Test
+    void decode_shouldReturnSharedRoleSet() {
+        RoleCodebook.RoleSet first = codebook.decode(0b110);
+
+        assertEquals(List.of("USER", "ADMIN"), first.names());
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"),
+                first.authorities().stream().map(a -> a.getAuthority()).toList());
+        assertSame(first, codebook.decode(0b110));
+        assertSame(first, codebook.forNames(new ArrayList<>(List.of("USER", "ADMIN"))));
+    }
+
+    @Test
+    void decode_unknownRoleId_shouldReloadTable() {
+        when(roleRepository.findAll()).thenReturn(List.of(role(1L, "USER"), role(2L, "ADMIN"), role(3L, "MANAGER")));
+
+        assertEquals(List.of("MANAGER"), codebook.decode(0b1000).names());
+        verify(roleRepository, times(2)).findAll();
+    }
+
+    @Test
+    void refresh_shouldReplaceDecodedSetsOfThePreviousTable() {
+        RoleCodebook.RoleSet before = codebook.decode(0b100);
+        when(roleRepository.findAll()).thenReturn(List.of(role(1L, "USER"), role(2L, "SUPERVISOR")));
+
+        codebook.refresh();
+
+        assertEquals(List.of("ADMIN"), before.names());
+        assertEquals(List.of("SUPERVISOR"), codebook.decode(0b100).names());
+    }
+
+    private static Role role(Long id, String name) {
+        Role role = new Role(name);
+        role.setId(id);
+        return role;
+    }
+}
@@ -0,0 +1,105 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.model.SharedSigningKey;
+import org.payetonkawa.auth.auth_service.repository.SharedSigningKeyRepository;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SigningKeyRotationSchedulerTest {
+
+    private final Map<String, SharedSigningKey> stored = new HashMap<>();
+    private SharedSigningKeyRepository sharedKeys;
+    private SigningKeyRing keyRing;
+    private SigningKeyRotationScheduler scheduler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sharedKeys = mock(SharedSigningKeyRepository.class);
+        when(sharedKeys.existsById(anyString())).thenAnswer(inv -> stored.containsKey(inv.<String>getArgument(0)));
+        when(sharedKeys.save(any())).thenAnswer(inv -> {
+            SharedSigningKey key = inv.getArgument(0);
+            stored.put(key.getKid(), key);
+            return key;
+        });
+
+        keyRing = new SigningKeyRing(new ClassPathResource("private.pem"), new ClassPathResource("public.pem"),
+                "RS256", 7200000, Duration.ZERO);
+        keyRing.loadKeys();
+        scheduler = scheduler(keyRing);
+    }
+
+    @Test
+    void rotate_shouldShareNextKeyBeforePromotingIt() {
+        scheduler.rotate();
+        String nextKid = keyRing.next().kid();
+
+        assertTrue(stored.containsKey(nextKid));
+
+        scheduler.rotate();
+
+        assertEquals(nextKid, keyRing.active().kid());
+        assertTrue(stored.containsKey(keyRing.next().kid()));
+    }
+
+    @Test
+    void rotate_unsharedNextKey_shouldNotBePromotedUntilShared() {
+        String activeKid = keyRing.active().kid();
+        doThrow(new DataAccessResourceFailureException("down")).when(sharedKeys).save(any());
+        scheduler.rotate();
+        String nextKid = keyRing.next().kid();
+        assertFalse(stored.containsKey(nextKid));
+
+        // Base revenue : la clé est enregistrée à ce passage, et seulement promue au suivant
+        doAnswer(inv -> stored.put(nextKid, inv.getArgument(0))).when(sharedKeys).save(any());
+        scheduler.rotate();
+        assertEquals(activeKid, keyRing.active().kid());
+        assertTrue(stored.containsKey(nextKid));
+
+        scheduler.rotate();
+        assertEquals(nextKid, keyRing.active().kid());
+    }
+
+    @Test
+    void syncPeerKeys_shouldVerifyTokensSignedByAnotherInstance() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair other = generator.generateKeyPair();
+        String encoded = Base64.getEncoder().encodeToString(other.getPublic().getEncoded());
+        String otherKid = SigningKeyRing.keyId(other.getPublic());
+        when(sharedKeys.findByPublishedAtAfter(any())).thenReturn(List.of(
+                new SharedSigningKey(otherKid, "RS256", encoded, Instant.now())));
+
+        scheduler.syncPeerKeys();
+
+        assertNotNull(keyRing.verificationKey(otherKid));
+        assertNull(keyRing.verificationKey(otherKid).privateKey());
+        verify(sharedKeys).deletePublishedBefore(any());
+    }
+
+    @Test
+    void syncIntervalNotShorterThanJwksMaxAge_shouldBeRejected() {
+        assertThrows(IllegalStateException.class, () -> new SigningKeyRotationScheduler(keyRing, sharedKeys,
+                Duration.ofDays(1), Duration.ofMinutes(5), Duration.ofMinutes(5), 7200000));
+    }
+
+    private SigningKeyRotationScheduler scheduler(SigningKeyRing ring) {
+        return new SigningKeyRotationScheduler(ring, sharedKeys, Duration.ofDays(1), Duration.ofSeconds(1),
+                Duration.ofSeconds(5), 7200000);
+    }
+}
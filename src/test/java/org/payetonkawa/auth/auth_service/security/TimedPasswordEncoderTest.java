@@ -0,0 +1,38 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TimedPasswordEncoderTest {
+
+    private final PasswordEncoder delegate = mock(PasswordEncoder.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TimedPasswordEncoder encoder = new TimedPasswordEncoder(delegate, meterRegistry);
+
+    @Test
+    void matches_shouldRecordByResult() {
+        when(delegate.matches("good", "hash")).thenReturn(true);
+        when(delegate.matches("bad", "hash")).thenReturn(false);
+
+        assertTrue(encoder.matches("good", "hash"));
+        assertFalse(encoder.matches("bad", "hash"));
+        assertFalse(encoder.matches("bad", "hash"));
+
+        assertEquals(1, meterRegistry.get("password.matches").tag("result", "match").timer().count());
+        assertEquals(2, meterRegistry.get("password.matches").tag("result", "mismatch").timer().count());
+    }
+
+    @Test
+    void encodeAndUpgrade_shouldDelegate() {
+        when(delegate.encode("raw")).thenReturn("hash");
+        when(delegate.upgradeEncoding("hash")).thenReturn(true);
+
+        assertEquals("hash", encoder.encode("raw"));
+        assertTrue(encoder.upgradeEncoding("hash"));
+        assertEquals(1, meterRegistry.get("password.encode").timer().count());
+    }
+}
@@ -0,0 +1,80 @@
+package org.payetonkawa.auth.auth_service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.model.RevokedToken;
+import org.payetonkawa.auth.auth_service.repository.RevokedTokenRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenDenylistTest {
+
+    private RevokedTokenRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RevokedTokenRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        denylist = new TokenDenylist(repository, 1_000, 0.01, meterRegistry);
+    }
+
+    @Test
+    void revoke_shouldPersistAndBlockToken() {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+
+        denylist.revoke("jti-1", expiresAt);
+
+        assertTrue(denylist.isRevoked("jti-1"));
+        assertFalse(denylist.isRevoked("jti-2"));
+        verify(repository).save(argThat(t -> t.getJti().equals("jti-1") && t.getExpiresAt().equals(expiresAt)));
+        assertEquals(1.0, meterRegistry.get("token.denylist.lookups").tag("result", "revoked").counter().count());
+    }
+
+    @Test
+    void revoke_expiredToken_shouldBeIgnored() {
+        denylist.revoke("jti-1", Instant.now().minusSeconds(1));
+        denylist.revoke(null, Instant.now().plusSeconds(60));
+
+        assertFalse(denylist.isRevoked("jti-1"));
+        assertFalse(denylist.isRevoked(null));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void loadAndSync_shouldPickUpRevocationsFromDatabase() {
+        Instant future = Instant.now().plusSeconds(600);
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(new RevokedToken("a", future, Instant.now())));
+        when(repository.findByRevokedAtAfterAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(new RevokedToken("b", future, Instant.now())));
+
+        denylist.load();
+        assertTrue(denylist.isRevoked("a"));
+        assertFalse(denylist.isRevoked("b"));
+
+        denylist.sync();
+        assertTrue(denylist.isRevoked("b"));
+        assertEquals(2, denylist.size());
+    }
+
+    @Test
+    void purge_shouldDropExpiredEntries() throws Exception {
+        denylist.revoke("short", Instant.now().plusMillis(50));
+        denylist.revoke("long", Instant.now().plusSeconds(600));
+        Thread.sleep(100);
+
+        denylist.purge();
+
+        verify(repository).deleteExpired(any());
+        assertEquals(1, denylist.size());
+        assertFalse(denylist.isRevoked("short"));
+        assertTrue(denylist.isRevoked("long"));
+    }
+}
@@ -1,17 +1,26 @@
 package org.payetonkawa.auth.auth_service.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.payetonkawa.auth.auth_service.model.Role;
 import org.payetonkawa.auth.auth_service.model.User;
-import org.payetonkawa.auth.auth_service.repository.RoleRepository;
 import org.payetonkawa.auth.auth_service.repository.UserRepository;
 import org.payetonkawa.auth.auth_service.security.JwtService;
+import org.payetonkawa.auth.auth_service.security.PasswordHashingExecutor;
+import org.payetonkawa.auth.auth_service.security.TokenDenylist;
+import org.payetonkawa.auth.auth_service.security.VerifiedToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,7 +33,15 @@ class AuthServiceTest {
     @Mock private UserRepository repo;
     @Mock private PasswordEncoder encoder;
     @Mock private JwtService jwtService;
-    @Mock private RoleRepository roleRepository;
+    @Mock private RoleRegistry roleRegistry;
+    @Mock private PasswordRehashService rehashService;
+    @Mock private LastLoginRecorder lastLoginRecorder;
+    @Mock private TokenDenylist tokenDenylist;
+    @Mock private EntityTagCache entityTags;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Spy private ProfileCache profileCache = new ProfileCache(100, Duration.ofMinutes(1), 900_000, new SimpleMeterRegistry());
+    @Spy private PasswordHashingExecutor hashingExecutor =
+            new PasswordHashingExecutor(1, 4, Duration.ofSeconds(5), new SimpleMeterRegistry());
 
     @InjectMocks
     private AuthService authService;
@@ -35,6 +52,16 @@ class AuthServiceTest {
         assertTrue(authService.findByEmail("email").isPresent());
     }
 
+    @Test
+    void findByEmailOnPrimary_shouldRunInReadWriteTransaction() throws Exception {
+        // Le routage envoie les transactions readOnly sur le réplica : les chemins d'écriture doivent lire le primaire
+        Transactional transactional = AuthService.class.getMethod("findByEmailOnPrimary", String.class)
+                .getAnnotation(Transactional.class);
+
+        assertNotNull(transactional);
+        assertFalse(transactional.readOnly());
+    }
+
     @Test
     void checkPassword_shouldReturnTrue() {
         User user = new User();
@@ -47,6 +74,7 @@ class AuthServiceTest {
     @Test
     void register_shouldEncodePasswordAndSaveUser() {
         User user = new User();
+        user.setEmail("new@example.com");
         user.setPassword("raw");
         when(encoder.encode("raw")).thenReturn("encoded");
 
@@ -54,6 +82,28 @@ class AuthServiceTest {
 
         assertEquals("encoded", user.getPassword());
         verify(repo).save(user);
+        assertTrue(authService.changedRecently(user.getEmail()));
+    }
+
+    @Test
+    void recordLogin_shouldBufferLastLoginWithoutSaving() {
+        User user = new User();
+        user.setId(7L);
+
+        authService.recordLogin(user);
+
+        assertNotNull(user.getLastLogin());
+        verify(lastLoginRecorder).record(7L, user.getLastLogin());
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void rehashPasswordIfNeeded_shouldDelegateToRehashService() {
+        User user = new User();
+
+        authService.rehashPasswordIfNeeded(user, "raw");
+
+        verify(rehashService).rehashIfNeeded(user, "raw");
     }
 
     @Test
@@ -80,7 +130,7 @@ class AuthServiceTest {
     void getDefaultUserRole_shouldReturnUserRole_whenFound() {
         Role role = new Role();
         role.setName("USER");
-        when(roleRepository.findByName("USER")).thenReturn(Optional.of(role));
+        when(roleRegistry.findByName("USER")).thenReturn(Optional.of(role));
 
         Role result = authService.getDefaultUserRole();
 
@@ -89,26 +139,21 @@ class AuthServiceTest {
 
     @Test
     void getDefaultUserRole_shouldThrow_whenNotFound() {
-        when(roleRepository.findByName("USER")).thenReturn(Optional.empty());
+        when(roleRegistry.findByName("USER")).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> authService.getDefaultUserRole());
         assertTrue(exception.getMessage().contains("Default role USER not found"));
     }
 
     @Test
-    void extractEmailFromToken_shouldCallJwtService() {
-        when(jwtService.getEmailFromToken("token")).thenReturn("email@example.com");
+    void verifyToken_shouldCallJwtService() {
+        VerifiedToken verified = VerifiedToken.valid("email@example.com", List.of("USER"), Instant.now().plusSeconds(60));
+        when(jwtService.verify("token")).thenReturn(verified);
 
-        String result = authService.extractEmailFromToken("token");
+        VerifiedToken result = authService.verifyToken("token");
 
-        assertEquals("email@example.com", result);
-    }
-
-    @Test
-    void validateToken_shouldReturnTrue() {
-        when(jwtService.validateToken("token")).thenReturn(true);
-
-        assertTrue(authService.validateToken("token"));
+        assertTrue(result.isValid());
+        assertEquals("email@example.com", result.subject());
     }
 
     @Test
@@ -126,4 +171,59 @@ class AuthServiceTest {
 
         assertEquals("encoded", result);
     }
+    @Test
+    void getProfile_shouldLoadOnceThenServeFromCache() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("email@example.com");
+        user.setRoles(java.util.Set.of(new Role("USER")));
+        when(repo.findByEmail("email@example.com")).thenReturn(Optional.of(user));
+
+        assertEquals(List.of("USER"), authService.getProfile("email@example.com").orElseThrow().roles());
+        assertTrue(authService.getProfile("email@example.com").isPresent());
+
+        verify(repo, times(1)).findByEmail("email@example.com");
+    }
+
+    @Test
+    void save_shouldInvalidateCachedProfile() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("email@example.com");
+        when(repo.findByEmail("email@example.com")).thenReturn(Optional.of(user));
+
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        authService.getProfile("email@example.com");
+        user.setFirstName("Updated");
+        authService.save(user);
+
+        assertEquals("Updated", authService.getProfile("email@example.com").orElseThrow().firstname());
+        verify(repo, times(2)).findByEmail("email@example.com");
+        // Rechargement après la modification : dans une transaction en écriture, donc sur le primaire
+        verify(transactionTemplate).execute(any());
+    }
+    @Test
+    void verifyToken_revokedToken_shouldReportRevoked() {
+        when(jwtService.verify("token")).thenReturn(
+                VerifiedToken.valid("jti-1", "email@example.com", List.of("USER"), Instant.now().plusSeconds(60)));
+        when(tokenDenylist.isRevoked("jti-1")).thenReturn(true);
+
+        assertEquals(VerifiedToken.Failure.REVOKED, authService.verifyToken("token").failure());
+    }
+
+    @Test
+    void revokeToken_shouldDenylistValidTokenUntilExpiry() {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        when(jwtService.verify("token")).thenReturn(
+                VerifiedToken.valid("jti-1", "email@example.com", List.of("USER"), expiresAt));
+        when(jwtService.verify("garbage")).thenReturn(VerifiedToken.failed(VerifiedToken.Failure.MALFORMED));
+
+        authService.revokeToken("token");
+        authService.revokeToken("garbage");
+
+        verify(tokenDenylist).revoke("jti-1", expiresAt);
+        verifyNoMoreInteractions(tokenDenylist);
+    }
 }
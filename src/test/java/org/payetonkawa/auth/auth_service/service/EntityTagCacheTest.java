@@ -0,0 +1,64 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityTagCacheTest {
+
+    private final EntityTagCache cache = new EntityTagCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Test
+    void userTag_shouldChangeWithVersionAndLastLogin() {
+        LocalDateTime login = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+        assertEquals(EntityTagCache.userTag(3L, login), EntityTagCache.userTag(3L, login));
+        assertNotEquals(EntityTagCache.userTag(3L, login), EntityTagCache.userTag(4L, login));
+        assertNotEquals(EntityTagCache.userTag(3L, login), EntityTagCache.userTag(3L, login.plusSeconds(1)));
+        assertNotEquals(EntityTagCache.userTag(3L, login), EntityTagCache.userTag(3L, null));
+    }
+
+    @Test
+    void user_shouldRememberTagUntilInvalidated() {
+        User user = new User();
+        user.setId(1L);
+        user.setVersion(2L);
+
+        String tag = cache.user(user);
+
+        assertEquals(tag, cache.user(1L).orElseThrow());
+        assertTrue(cache.user(2L).isEmpty());
+
+        cache.invalidateUser(1L);
+        assertTrue(cache.user(1L).isEmpty());
+    }
+
+    @Test
+    void rolesTag_shouldDependOnIdsAndVersionsOnly() {
+        List<Role> roles = List.of(role(1L, 0L, "USER"), role(2L, 0L, "ADMIN"));
+
+        String tag = cache.roles(roles);
+
+        assertEquals(tag, EntityTagCache.rolesTag(List.of(roles.get(1), roles.get(0))));
+        assertNotEquals(tag, EntityTagCache.rolesTag(List.of(role(1L, 0L, "USER"), role(2L, 1L, "ADMINS"))));
+        assertNotEquals(tag, EntityTagCache.rolesTag(List.of(role(1L, 0L, "USER"))));
+        assertEquals(tag, cache.roles().orElseThrow());
+
+        cache.invalidateAll();
+        assertTrue(cache.roles().isEmpty());
+    }
+
+    private static Role role(Long id, Long version, String name) {
+        Role role = new Role(name);
+        role.setId(id);
+        role.setVersion(version);
+        return role;
+    }
+}
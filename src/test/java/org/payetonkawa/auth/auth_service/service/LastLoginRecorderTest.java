@@ -0,0 +1,91 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LastLoginRecorderTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private LastLoginRecorder recorder;
+    private final EntityTagCache entityTags = mock(EntityTagCache.class);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        recorder = new LastLoginRecorder(jdbcTemplate, 1000, entityTags, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldSendOnlyLatestTimestampPerUserInOneBatch() {
+        LocalDateTime first = LocalDateTime.of(2025, 1, 1, 10, 0);
+        LocalDateTime second = first.plusMinutes(5);
+
+        recorder.record(1L, first);
+        recorder.record(1L, second);
+        recorder.record(1L, first); // plus ancien : ignoré
+        recorder.record(2L, first);
+
+        recorder.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq("UPDATE users SET last_login = ? WHERE id = ?"), batch.capture());
+        assertEquals(2, batch.getValue().size());
+        assertTrue(batch.getValue().stream().anyMatch(row ->
+                row[1].equals(1L) && row[0].equals(Timestamp.valueOf(second))));
+        assertEquals(0, recorder.pendingCount());
+        verify(entityTags).invalidateUser(1L);
+        verify(entityTags).invalidateUser(2L);
+    }
+
+    @Test
+    void flush_emptyBuffer_shouldNotTouchDatabase() {
+        recorder.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void flush_failure_shouldKeepEntriesForRetry() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        recorder.record(1L, LocalDateTime.now());
+        recorder.flush();
+
+        assertEquals(1, recorder.pendingCount());
+        verifyNoInteractions(entityTags);
+    }
+
+    @Test
+    void record_reachingThreshold_shouldFlushInBackground() {
+        recorder = new LastLoginRecorder(jdbcTemplate, 2, entityTags, new SimpleMeterRegistry());
+
+        recorder.record(1L, LocalDateTime.now());
+        recorder.record(2L, LocalDateTime.now());
+
+        verify(jdbcTemplate, timeout(5000)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void shutdown_shouldDrainBuffer() {
+        recorder.record(1L, LocalDateTime.now());
+
+        recorder.shutdown();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        assertEquals(0, recorder.pendingCount());
+    }
+}
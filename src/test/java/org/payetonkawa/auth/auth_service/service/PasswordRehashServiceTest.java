@@ -0,0 +1,87 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.model.User;
+import org.payetonkawa.auth.auth_service.repository.UserRepository;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PasswordRehashServiceTest {
+
+    private UserRepository repo;
+    private DelegatingPasswordEncoder encoder;
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordRehashService service;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(UserRepository.class);
+        encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(5)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        meterRegistry = new SimpleMeterRegistry();
+        service = new PasswordRehashService(encoder, repo, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void needsRehash_legacyHashWithoutPrefix_shouldBeTrue() {
+        User user = userWithHash(new BCryptPasswordEncoder(4).encode("secret"));
+
+        assertTrue(service.needsRehash(user));
+    }
+
+    @Test
+    void needsRehash_lowerCost_shouldBeTrue() {
+        User user = userWithHash("{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret"));
+
+        assertTrue(service.needsRehash(user));
+    }
+
+    @Test
+    void needsRehash_currentFormat_shouldBeFalse() {
+        User user = userWithHash(encoder.encode("secret"));
+
+        assertFalse(service.needsRehash(user));
+    }
+
+    @Test
+    void rehashIfNeeded_shouldUpdateInBackground() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        User user = userWithHash(legacy);
+        when(repo.updatePasswordIfUnchanged(eq(1L), eq(legacy), anyString())).thenReturn(1);
+
+        service.rehashIfNeeded(user, "secret");
+
+        verify(repo, timeout(5000)).updatePasswordIfUnchanged(eq(1L), eq(legacy),
+                argThat(hash -> hash.startsWith("{bcrypt}$2a$05$") && encoder.matches("secret", hash)));
+    }
+
+    @Test
+    void rehash_passwordChangedMeanwhile_shouldCountAsSkipped() {
+        when(repo.updatePasswordIfUnchanged(eq(1L), eq("old"), anyString())).thenReturn(0);
+
+        service.rehash(1L, "old", "secret");
+
+        assertEquals(1.0, meterRegistry.get("password.rehash").tag("outcome", "skipped").counter().count());
+    }
+
+    private User userWithHash(String hash) {
+        User user = new User();
+        user.setId(1L);
+        user.setPassword(hash);
+        return user;
+    }
+}
@@ -0,0 +1,101 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.dto.UserProfileResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfileCacheTest {
+
+    private final ProfileCache cache = new ProfileCache(100, Duration.ofMinutes(1), 900_000, new SimpleMeterRegistry());
+
+    @Test
+    void get_shouldNotCacheMissingProfiles() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertTrue(cache.get("a@example.com", key -> { loads.incrementAndGet(); return null; }).isEmpty());
+        assertTrue(cache.get("a@example.com", key -> { loads.incrementAndGet(); return profile(1L); }).isPresent());
+        assertTrue(cache.get("a@example.com", key -> { loads.incrementAndGet(); return profile(1L); }).isPresent());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void updateLastLogin_shouldRewriteCachedEntryOnly() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        cache.get("a@example.com", key -> profile(1L));
+
+        cache.updateLastLogin("a@example.com", now);
+        cache.updateLastLogin("b@example.com", now);
+
+        assertEquals(now, cache.get("a@example.com", key -> fail("should be cached")).orElseThrow().lastLogin());
+        assertTrue(cache.get("b@example.com", key -> null).isEmpty());
+    }
+
+    @Test
+    void invalidateUser_shouldDropEntriesForThatId() {
+        cache.get("a@example.com", key -> profile(1L));
+        cache.get("b@example.com", key -> profile(2L));
+
+        cache.invalidateUser(1L);
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("a@example.com", key -> { loads.incrementAndGet(); return profile(1L); });
+        cache.get("b@example.com", key -> { loads.incrementAndGet(); return profile(2L); });
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void isCurrent_shouldRejectTokensIssuedBeforeAChange() {
+        Instant issuedBefore = Instant.now().minusSeconds(5);
+        assertTrue(cache.isCurrent("a@example.com", 1L, issuedBefore));
+
+        cache.invalidate("a@example.com");
+        cache.invalidateUser(2L);
+
+        assertFalse(cache.isCurrent("a@example.com", 1L, issuedBefore));
+        assertFalse(cache.isCurrent("b@example.com", 2L, issuedBefore));
+        assertTrue(cache.isCurrent("c@example.com", 3L, issuedBefore));
+        assertTrue(cache.isCurrent("a@example.com", 1L, Instant.now().plusSeconds(1)));
+        assertFalse(cache.isCurrent("c@example.com", 3L, null));
+
+        cache.invalidateAll();
+        assertFalse(cache.isCurrent("c@example.com", 3L, issuedBefore));
+    }
+
+    @Test
+    void isCurrent_shouldRejectTokensIssuedInTheSameSecondAsAChange() {
+        // iat d'un jeton émis juste avant la modification, dans la même seconde
+        Instant sameSecond = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        cache.invalidate("a@example.com");
+
+        assertFalse(cache.isCurrent("a@example.com", 1L, sameSecond));
+        assertTrue(cache.isCurrent("a@example.com", 1L, Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1)));
+    }
+
+    @Test
+    void changedRecently_shouldTrackInvalidationsOfThisInstance() {
+        assertFalse(cache.changedRecently("a@example.com"));
+
+        cache.invalidate("a@example.com");
+
+        assertTrue(cache.changedRecently("a@example.com"));
+        assertFalse(cache.changedRecently("b@example.com"));
+
+        cache.invalidateAll();
+        assertTrue(cache.changedRecently("b@example.com"));
+    }
+
+    private static UserProfileResponse profile(Long id) {
+        return new UserProfileResponse(id, "user" + id + "@example.com", "First", "Last", "ACTIVE",
+                null, null, List.of("USER"), 0L);
+    }
+}
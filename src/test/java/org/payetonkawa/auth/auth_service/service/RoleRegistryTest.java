@@ -0,0 +1,77 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.repository.RoleRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RoleRegistryTest {
+
+    private RoleRepository roleRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private RoleRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        roleRepository = mock(RoleRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new RoleRegistry(roleRepository, Duration.ofMinutes(10), meterRegistry);
+    }
+
+    @Test
+    void findByName_shouldHitDatabaseOnce() {
+        when(roleRepository.findByName("USER")).thenReturn(Optional.of(role(1L, "USER")));
+
+        assertEquals("USER", registry.findByName("USER").orElseThrow().getName());
+        assertEquals("USER", registry.findByName("USER").orElseThrow().getName());
+
+        verify(roleRepository, times(1)).findByName("USER");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "roles").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void findByName_shouldReturnCopies() {
+        when(roleRepository.findByName("USER")).thenReturn(Optional.of(role(1L, "USER")));
+
+        registry.findByName("USER").orElseThrow().setName("MUTATED");
+
+        assertEquals("USER", registry.findByName("USER").orElseThrow().getName());
+    }
+
+    @Test
+    void findByName_shouldNotCacheMissingRoles() {
+        when(roleRepository.findByName("MANAGER"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(role(3L, "MANAGER")));
+
+        assertTrue(registry.findByName("MANAGER").isEmpty());
+        assertTrue(registry.findByName("MANAGER").isPresent());
+    }
+
+    @Test
+    void invalidateAll_shouldReloadFromDatabase() {
+        when(roleRepository.findByName("USER"))
+                .thenReturn(Optional.of(role(1L, "USER")))
+                .thenReturn(Optional.of(role(1L, "USER")));
+
+        registry.findByName("USER");
+        registry.invalidateAll();
+        registry.findByName("USER");
+
+        verify(roleRepository, times(2)).findByName("USER");
+    }
+
+    private static Role role(Long id, String name) {
+        Role role = new Role(name);
+        role.setId(id);
+        return role;
+    }
+}
@@ -6,6 +6,7 @@ import org.mockito.*;
 import org.payetonkawa.auth.auth_service.model.Role;
 import org.payetonkawa.auth.auth_service.repository.RoleRepository;
 import org.payetonkawa.auth.auth_service.repository.UserRepository;
+import org.payetonkawa.auth.auth_service.security.RoleCodebook;
 
 import java.util.*;
 
@@ -23,6 +24,18 @@ class RoleServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private RoleRegistry roleRegistry;
+
+    @Mock
+    private ProfileCache profileCache;
+
+    @Mock
+    private RoleCodebook roleCodebook;
+
+    @Mock
+    private EntityTagCache entityTags;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -44,6 +57,8 @@ class RoleServiceTest {
 
         assertThat(result.getName()).isEqualTo(roleName);
         verify(roleRepository).save(any(Role.class));
+        verify(roleRegistry).invalidateAll();
+        verify(roleCodebook).refresh();
     }
 
     // 🔸 createRole - échec si déjà existant
@@ -103,6 +118,11 @@ class RoleServiceTest {
         Role updated = roleService.updateRole(1L, "NEW");
 
         assertThat(updated.getName()).isEqualTo("NEW");
+        verify(userRepository).incrementVersionForRole(1L);
+        verify(roleRegistry).invalidateAll();
+        verify(profileCache).invalidateAll();
+        verify(roleCodebook).refresh();
+        verify(entityTags).invalidateAll();
     }
 
     // 🔸 deleteRole - succès
@@ -118,6 +138,9 @@ class RoleServiceTest {
         roleService.deleteRole(1L);
 
         verify(roleRepository).deleteById(1L);
+        verify(roleRegistry).invalidateAll();
+        verify(profileCache).invalidateAll();
+        verify(roleCodebook).refresh();
     }
 
     // 🔸 deleteRole - échec si utilisateurs assignés
@@ -0,0 +1,72 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.model.Status;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.UserExportRow;
+import org.payetonkawa.auth.auth_service.repository.UserRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserExportServiceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    private UserRepository repo;
+    private UserExportService service;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(UserRepository.class);
+        when(repo.streamExportRows(1000)).thenReturn(Stream.of(
+                new UserExportRow(1L, "a@example.com", "Ada", "Lovelace", Status.ACTIVE, CREATED, null, "USER"),
+                new UserExportRow(1L, "a@example.com", "Ada", "Lovelace", Status.ACTIVE, CREATED, null, "ADMIN"),
+                new UserExportRow(2L, "b@example.com", "Smith, Jr", "Bob", Status.INACTIVE, CREATED, null, null)
+        ).onClose(() -> closed.set(true)));
+        service = new UserExportService(repo, 1000, 500, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void exportNdjson_shouldWriteOneObjectPerUser() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(2, service.export(output, UserFileFormat.NDJSON));
+
+        assertEquals("""
+                {"id":1,"email":"a@example.com","firstName":"Ada","lastName":"Lovelace","roles":["USER","ADMIN"],"status":"ACTIVE","createdAt":"2024-05-01T10:00","lastLogin":null}
+                {"id":2,"email":"b@example.com","firstName":"Smith, Jr","lastName":"Bob","roles":[],"status":"INACTIVE","createdAt":"2024-05-01T10:00","lastLogin":null}
+                """, output.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportCsv_shouldQuoteFieldsAndJoinRoles() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        service.export(output, UserFileFormat.CSV);
+
+        assertEquals("""
+                id,email,firstName,lastName,roles,status,createdAt,lastLogin
+                1,a@example.com,Ada,Lovelace,USER;ADMIN,ACTIVE,2024-05-01T10:00,
+                2,b@example.com,"Smith, Jr",Bob,,INACTIVE,2024-05-01T10:00,
+                """, output.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void escape_shouldFollowImportFormat() {
+        assertEquals("plain", UserExportService.escape("plain"));
+        assertEquals("\"say \"\"hi\"\"\"", UserExportService.escape("say \"hi\""));
+        assertEquals("", UserExportService.escape(null));
+    }
+}
@@ -0,0 +1,79 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.dto.UserImportReport;
+import org.payetonkawa.auth.auth_service.model.User;
+import org.payetonkawa.auth.auth_service.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Repli ligne par ligne sur une vraie base : le lot échoue sur la contrainte unique de l'e-mail,
+ * les autres lignes du lot doivent quand même être insérées.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:userimport;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class UserImportServiceDatabaseTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void chunkFailingOnDuplicateEmail_shouldRetryRowByRowAndInsertTheOthers() throws Exception {
+        // Course : l'e-mail de la deuxième ligne est créé ailleurs après la vérification des doublons du lot
+        PasswordEncoder racingEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence raw) {
+                if ("pw-race".contentEquals(raw)) {
+                    User other = new User();
+                    other.setEmail("race@example.com");
+                    other.setPassword("hash");
+                    userRepository.save(other);
+                }
+                return "hashed:" + raw;
+            }
+
+            @Override
+            public boolean matches(CharSequence raw, String encoded) {
+                return encoded.equals(encode(raw));
+            }
+        };
+        UserImportService service = new UserImportService(userRepository, roleRegistry, racingEncoder,
+                transactionTemplate, 10, 10, 1, new SimpleMeterRegistry());
+
+        UserImportReport report;
+        try {
+            report = service.importUsers(new ByteArrayInputStream("""
+                    email,password,firstName,lastName,roles,status
+                    first@example.com,pw-1,Ada,Lovelace,,
+                    race@example.com,pw-race,Alan,Turing,,
+                    last@example.com,pw-3,Grace,Hopper,admin,
+                    """.getBytes(StandardCharsets.UTF_8)), UserFileFormat.CSV);
+        } finally {
+            service.destroy();
+        }
+
+        assertEquals(2, report.imported(), report::toString);
+        assertEquals(1, report.failed(), report::toString);
+        assertEquals(3, report.errors().get(0).line());
+        User first = userRepository.findByEmail("first@example.com").orElseThrow();
+        assertEquals(0L, first.getVersion());
+        assertEquals("hashed:pw-1", first.getPassword());
+        assertTrue(userRepository.findByEmail("last@example.com").isPresent());
+    }
+}
@@ -0,0 +1,164 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.dto.UserImportReport;
+import org.payetonkawa.auth.auth_service.model.Role;
+import org.payetonkawa.auth.auth_service.model.Status;
+import org.payetonkawa.auth.auth_service.model.User;
+import org.payetonkawa.auth.auth_service.repository.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UserImportServiceTest {
+
+    private UserRepository repo;
+    private RoleRegistry roleRegistry;
+    private TransactionTemplate transactionTemplate;
+    private UserImportService service;
+    private final List<List<User>> savedChunks = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repo = mock(UserRepository.class);
+        roleRegistry = mock(RoleRegistry.class);
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+
+        when(encoder.encode(anyString())).thenAnswer(inv -> "hashed:" + inv.getArgument(0));
+        when(roleRegistry.findByName(anyString())).thenReturn(Optional.empty());
+        when(roleRegistry.findByName("USER")).thenReturn(Optional.of(role(1L, "USER")));
+        when(roleRegistry.findByName("ADMIN")).thenReturn(Optional.of(role(2L, "ADMIN")));
+        when(repo.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(repo.saveAll(any())).thenAnswer(inv -> {
+            savedChunks.add(List.copyOf((List<User>) inv.getArgument(0)));
+            return inv.getArgument(0);
+        });
+        doAnswer(inv -> {
+            inv.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        service = new UserImportService(repo, roleRegistry, encoder, transactionTemplate,
+                2, 10, 2, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void importCsv_shouldInsertInChunksWithHashedPasswords() throws IOException {
+        UserImportReport report = service.importUsers(stream("""
+                email,password,firstName,lastName,roles,status
+                a@example.com,pw-a,Ada,Lovelace,,
+                b@example.com,pw-b,"Smith, Jr",Bob,USER;admin,INACTIVE
+                c@example.com,pw-c,Carl,Sagan,,
+                """), UserFileFormat.CSV);
+
+        assertEquals(3, report.imported());
+        assertEquals(0, report.failed());
+        assertEquals(2, savedChunks.size());
+        assertEquals(2, savedChunks.get(0).size());
+
+        User bob = savedChunks.get(0).get(1);
+        assertEquals("hashed:pw-b", bob.getPassword());
+        assertEquals("Smith, Jr", bob.getFirstName());
+        assertEquals(Status.INACTIVE, bob.getStatus());
+        assertEquals(Set.of("USER", "ADMIN"), bob.getRoles().stream().map(Role::getName).collect(Collectors.toSet()));
+        assertEquals(Set.of("USER"), savedChunks.get(0).get(0).getRoles().stream().map(Role::getName).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void importNdjson_shouldReportInvalidRowsWithLineNumbers() throws IOException {
+        when(repo.findExistingEmails(anyCollection())).thenReturn(Set.of("taken@example.com"));
+
+        UserImportReport report = service.importUsers(stream("""
+                {"email":"ok@example.com","password":"pw"}
+                {"email":"ok@example.com","password":"pw"}
+                not json
+                {"email":"taken@example.com","password":"pw"}
+                {"email":"nopass@example.com"}
+                {"email":"x@example.com","password":"pw","roles":["GHOST"]}
+                """), UserFileFormat.NDJSON);
+
+        assertEquals(1, report.imported());
+        assertEquals(5, report.failed());
+        assertEquals(Map.of(
+                        2L, "Duplicate email in import",
+                        3L, "Malformed JSON",
+                        4L, "Email already exists",
+                        5L, "Password is required",
+                        6L, "Role not found: GHOST"),
+                report.errors().stream().collect(Collectors.toMap(
+                        UserImportReport.RowError::line, UserImportReport.RowError::message)));
+        assertFalse(report.errorsTruncated());
+    }
+
+    @Test
+    void importCsv_chunkFailure_shouldRetryRowByRow() throws IOException {
+        doThrow(new DataIntegrityViolationException("duplicate")).when(repo).saveAll(any());
+        when(repo.save(any(User.class))).thenAnswer(inv -> {
+            User user = inv.getArgument(0);
+            if (user.getEmail().startsWith("race")) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            return user;
+        });
+
+        UserImportReport report = service.importUsers(stream("""
+                email,password
+                race@example.com,pw
+                fine@example.com,pw
+                """), UserFileFormat.CSV);
+
+        assertEquals(1, report.imported());
+        assertEquals(1, report.failed());
+        assertEquals("race@example.com", report.errors().get(0).email());
+        verify(repo, times(2)).save(any(User.class));
+    }
+
+    @Test
+    void importCsv_missingPasswordColumn_shouldBeRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.importUsers(stream("email,name\na@example.com,A\n"), UserFileFormat.CSV));
+    }
+
+    @Test
+    void splitCsv_shouldHandleQuotes() {
+        assertEquals(List.of("a", "b, c", "say \"hi\"", ""), UserImportService.splitCsv("a,\"b, c\",\"say \"\"hi\"\"\","));
+        assertThrows(IllegalArgumentException.class, () -> UserImportService.splitCsv("\"open"));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Role role(Long id, String name) {
+        Role role = new Role(name);
+        role.setId(id);
+        return role;
+    }
+}
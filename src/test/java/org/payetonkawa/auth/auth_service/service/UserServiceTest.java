@@ -6,16 +6,27 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.payetonkawa.auth.auth_service.dto.RoleResponse;
 import org.payetonkawa.auth.auth_service.dto.UpdateUserRequest;
+import org.payetonkawa.auth.auth_service.dto.UserFilter;
+import org.payetonkawa.auth.auth_service.dto.UserPage;
+import org.payetonkawa.auth.auth_service.model.Status;
 import org.payetonkawa.auth.auth_service.model.User;
-import org.payetonkawa.auth.auth_service.repository.RoleRepository;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.Keyset;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.SortKey;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.UserRoleRow;
+import org.payetonkawa.auth.auth_service.repository.UserListingRepository.UserRow;
 import org.payetonkawa.auth.auth_service.repository.UserRepository;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,14 +37,20 @@ class UserServiceTest {
     private UserRepository userRepo;
 
     @Mock
-    private RoleRepository roleRepo;
+    private RoleRegistry roleRegistry;
+
+    @Mock
+    private ProfileCache profileCache;
+
+    @Mock
+    private EntityTagCache entityTags;
 
     @InjectMocks
     private UserService service;
 
     @BeforeEach
     void setUp() {
-        service = new UserService(userRepo, roleRepo);
+        service = new UserService(userRepo, roleRegistry, profileCache, entityTags);
     }
 
     @Test
@@ -57,6 +74,8 @@ class UserServiceTest {
     void delete_shouldDelete() {
         when(userRepo.existsById(1L)).thenReturn(true);
         assertTrue(service.delete(1L));
+        verify(profileCache).invalidateUser(1L);
+        verify(entityTags).invalidateUser(1L);
     }
 
     @Test
@@ -79,6 +98,8 @@ class UserServiceTest {
 
         assertTrue(result.isPresent());
         assertEquals("First", result.get().getFirstName());
+        verify(profileCache).invalidate("email@example.com");
+        verify(entityTags).invalidateUser(1L);
     }
 
     @Test
@@ -87,7 +108,7 @@ class UserServiceTest {
         user.setRoles(Collections.emptySet());
 
         when(userRepo.findById(1L)).thenReturn(Optional.of(user));
-        when(roleRepo.findByName("MANAGER")).thenReturn(Optional.empty());
+        when(roleRegistry.findByName("MANAGER")).thenReturn(Optional.empty());
 
         // ⚠️ ordre des champs : firstName, lastName, email, status, role
         UpdateUserRequest dto = new UpdateUserRequest(
@@ -101,4 +122,65 @@ class UserServiceTest {
         assertEquals("Role not found: manager", ex.getMessage());
     }
 
+    @Test
+    void findPage_shouldReturnCursorWhenMoreRowsExist() {
+        List<UserRow> rows = List.of(row(1L), row(2L), row(3L));
+        when(userRepo.findUserRows(UserFilter.NONE, SortKey.ID, true, null, 3)).thenReturn(rows);
+        when(userRepo.findRoleRows(List.of(1L, 2L))).thenReturn(List.of(new UserRoleRow(1L, 10L, "ADMIN")));
+
+        UserPage page = service.findPage(null, 2, null, null, null, false);
+
+        assertEquals(2, page.items().size());
+        assertEquals(Set.of(new RoleResponse(10L, "ADMIN")), page.items().get(0).roles());
+        assertTrue(page.items().get(1).roles().isEmpty());
+        assertNull(page.totalEstimate());
+
+        Keyset next = UserService.decodeCursor(page.nextCursor(), SortKey.ID);
+        assertEquals(2L, next.id());
+    }
+
+    @Test
+    void findPage_lastPage_shouldHaveNoCursor() {
+        when(userRepo.findUserRows(eq(UserFilter.NONE), eq(SortKey.EMAIL), eq(false), any(), eq(51))).thenReturn(List.of(row(7L)));
+        when(userRepo.findRoleRows(List.of(7L))).thenReturn(List.of());
+        when(userRepo.estimateUserCount()).thenReturn(42L);
+
+        String after = UserService.encodeCursor(SortKey.EMAIL, row(8L));
+        UserPage page = service.findPage(null, null, after, "email", "desc", true);
+
+        assertNull(page.nextCursor());
+        assertEquals(42L, page.totalEstimate());
+        verify(userRepo).findUserRows(UserFilter.NONE, SortKey.EMAIL, false, new Keyset("user8@example.com", 8L), 51);
+    }
+
+    @Test
+    void findPage_withFilter_shouldCountExactlyInsteadOfEstimating() {
+        UserFilter filter = new UserFilter(null, "dupont", Status.ACTIVE, null, null, null, null, null);
+        when(userRepo.findUserRows(filter, SortKey.ID, true, null, 51)).thenReturn(List.of(row(7L)));
+        when(userRepo.findRoleRows(List.of(7L))).thenReturn(List.of());
+        when(userRepo.countUsers(filter)).thenReturn(1L);
+
+        UserPage page = service.findPage(filter, null, null, null, null, true);
+
+        assertEquals(1L, page.totalEstimate());
+        verify(userRepo, never()).estimateUserCount();
+    }
+
+    @Test
+    void findPage_shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> service.findPage(null, 0, null, null, null, false));
+        assertThrows(IllegalArgumentException.class, () -> service.findPage(null, 501, null, null, null, false));
+        assertThrows(IllegalArgumentException.class, () -> service.findPage(null, 10, null, "password", null, false));
+        assertThrows(IllegalArgumentException.class, () -> service.findPage(null, 10, null, null, "sideways", false));
+        assertThrows(IllegalArgumentException.class, () -> service.findPage(null, 10, "not-a-cursor", null, null, false));
+
+        String emailCursor = UserService.encodeCursor(SortKey.EMAIL, row(1L));
+        assertThrows(IllegalArgumentException.class, () -> service.findPage(null, 10, emailCursor, "createdAt", null, false));
+        verifyNoInteractions(userRepo);
+    }
+
+    private static UserRow row(Long id) {
+        return new UserRow(id, "user" + id + "@example.com", "First", "Last", Status.ACTIVE,
+                LocalDateTime.of(2024, 1, 1, 0, 0), null);
+    }
 }
@@ -0,0 +1,76 @@
+package org.payetonkawa.auth.auth_service.service;
+
+import org.junit.jupiter.api.Test;
+import org.payetonkawa.auth.auth_service.dto.UpdateUserRequest;
+import org.payetonkawa.auth.auth_service.dto.UserProfileResponse;
+import org.payetonkawa.auth.auth_service.model.User;
+import org.payetonkawa.auth.auth_service.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Caches (profils, ETags) invalidés au commit : une lecture faite pendant que la transaction de mise à jour est ouverte
+ * voit l'ancienne ligne, et ne doit pas la laisser en cache.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserServiceTransactionTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void update_profileReadBeforeCommit_shouldNotStayCached() {
+        User user = createUser("before-commit@example.com");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.update(user.getId(), new UpdateUserRequest("Updated", "Name", user.getEmail(), null, null));
+            // Lecture concurrente, sur une autre connexion : la mise à jour n'est pas encore visible
+            UserProfileResponse during = CompletableFuture.supplyAsync(() -> authService.getProfile(user.getEmail()))
+                    .join().orElseThrow();
+            assertEquals("Initial", during.firstname());
+        });
+
+        assertEquals("Updated", authService.getProfile(user.getEmail()).orElseThrow().firstname());
+    }
+
+    @Test
+    void update_entityTagReadBeforeCommit_shouldNotStayCached() {
+        User user = createUser("tag-before-commit@example.com");
+        String before = userService.entityTag(userService.findById(user.getId()).orElseThrow());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.update(user.getId(), new UpdateUserRequest("Updated", "Name", user.getEmail(), null, null));
+            // GET /users/{id} concurrent : relit l'ancienne version et remet son ETag en cache
+            String during = CompletableFuture.supplyAsync(() ->
+                    userService.entityTag(userService.findById(user.getId()).orElseThrow())).join();
+            assertEquals(before, during);
+        });
+
+        assertTrue(userService.cachedTag(user.getId()).isEmpty());
+    }
+
+    private User createUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setFirstName("Initial");
+        user.setLastName("Name");
+        user.setPassword("hash");
+        return userRepository.save(user);
+    }
+}
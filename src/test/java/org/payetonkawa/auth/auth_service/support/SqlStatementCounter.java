@@ -0,0 +1,34 @@
+package org.payetonkawa.auth.auth_service.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compte les requêtes SQL émises par Hibernate sur le thread courant.
+ * À déclarer via {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ * Les threads d'arrière-plan (flush de lastLogin, rehachage) ne sont pas comptés.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static int count() {
+        return STATEMENTS.get().size();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+}